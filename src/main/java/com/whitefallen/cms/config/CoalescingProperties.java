@@ -0,0 +1,32 @@
+package com.whitefallen.cms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cms.coalescing")
+public class CoalescingProperties {
+    
+    // When disabled, every read goes straight to the service
+    private boolean enabled = true;
+    
+    // How long a follower waits for the in-flight load before giving up
+    private Duration timeout = Duration.ofSeconds(5);
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public Duration getTimeout() {
+        return timeout;
+    }
+    
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,156 @@
+package com.whitefallen.cms.config;
+
+import com.whitefallen.cms.limiter.EndpointClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cms.limiter")
+public class ConcurrencyLimitProperties {
+    
+    // When disabled, no request is ever shed
+    private boolean enabled = true;
+    
+    // Cap on in-flight requests across all endpoint classes
+    private int maxTotalConcurrency = 200;
+    
+    // Value of the Retry-After header on shed requests
+    private Duration retryAfter = Duration.ofSeconds(1);
+    
+    private Limit reads = new Limit(100, 10, 200, Duration.ofMillis(200), 1.0);
+    
+    private Limit search = new Limit(40, 4, 100, Duration.ofMillis(500), 0.8);
+    
+    private Limit writes = new Limit(20, 2, 50, Duration.ofMillis(500), 0.9);
+    
+    public Limit forClass(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case READ -> reads;
+            case SEARCH -> search;
+            case WRITE -> writes;
+        };
+    }
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getMaxTotalConcurrency() {
+        return maxTotalConcurrency;
+    }
+    
+    public void setMaxTotalConcurrency(int maxTotalConcurrency) {
+        this.maxTotalConcurrency = maxTotalConcurrency;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+    
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+    
+    public Limit getReads() {
+        return reads;
+    }
+    
+    public void setReads(Limit reads) {
+        this.reads = reads;
+    }
+    
+    public Limit getSearch() {
+        return search;
+    }
+    
+    public void setSearch(Limit search) {
+        this.search = search;
+    }
+    
+    public Limit getWrites() {
+        return writes;
+    }
+    
+    public void setWrites(Limit writes) {
+        this.writes = writes;
+    }
+    
+    public static class Limit {
+        
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        
+        // Responses slower than this shrink the limit
+        private Duration latencyThreshold;
+        
+        private double backoffRatio = 0.9;
+        
+        // Fraction of max-total-concurrency this class may use before it is shed
+        private double shedAt;
+        
+        public Limit() {
+        }
+        
+        public Limit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double shedAt) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+            this.shedAt = shedAt;
+        }
+        
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+        
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+        
+        public int getMinLimit() {
+            return minLimit;
+        }
+        
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+        
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+        
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+        
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+        
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+        
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+        
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+        
+        public double getShedAt() {
+            return shedAt;
+        }
+        
+        public void setShedAt(double shedAt) {
+            this.shedAt = shedAt;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.whitefallen.cms.config;
+
+import com.whitefallen.cms.repository.SlowRepositoryCallLogger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+@Configuration
+public class PersistenceConfig {
+    
+    // Static, with the properties resolved lazily, so that registering the post-processor
+    // does not pull other beans into early initialization
+    @Bean
+    static BeanPostProcessor slowRepositoryCallLoggerRegistrar(ObjectProvider<PersistenceProperties> properties) {
+        SingletonSupplier<SlowRepositoryCallLogger> logger = SingletonSupplier.of(
+            () -> new SlowRepositoryCallLogger(properties.getObject().getSlowQueryThreshold()));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(
+                        factory -> factory.addInvocationListener(logger.obtain()));
+                }
+                return bean;
+            }
+        };
+    }
+}
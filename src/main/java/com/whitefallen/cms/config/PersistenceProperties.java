@@ -0,0 +1,21 @@
+package com.whitefallen.cms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cms.persistence")
+public class PersistenceProperties {
+    
+    // Repository calls taking at least this long are logged with their method name
+    private Duration slowQueryThreshold = Duration.ofMillis(500);
+    
+    // Getters and Setters
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+    
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+}
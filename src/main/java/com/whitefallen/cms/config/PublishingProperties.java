@@ -0,0 +1,42 @@
+package com.whitefallen.cms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cms.publishing")
+public class PublishingProperties {
+    
+    private boolean enabled = true;
+    
+    // Timer resolution; publish and unpublish times take effect at most one tick late
+    private Duration tick = Duration.ofSeconds(1);
+    
+    // Buckets per wheel level; with 1s ticks, 64 buckets cover ~1 minute, ~1 hour, ~3 days, ...
+    private int wheelSize = 64;
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public Duration getTick() {
+        return tick;
+    }
+    
+    public void setTick(Duration tick) {
+        this.tick = tick;
+    }
+    
+    public int getWheelSize() {
+        return wheelSize;
+    }
+    
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+}
@@ -0,0 +1,75 @@
+package com.whitefallen.cms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cms.purge")
+public class PurgeProperties {
+    
+    private boolean enabled = true;
+    
+    // When purge runs; defaults to every 10 minutes between 01:00 and 05:59
+    private String cron = "0 */10 1-5 * * *";
+    
+    // How long a tombstone is kept before it may be hard-deleted
+    private Duration retention = Duration.ofDays(7);
+    
+    // Rows hard-deleted per transaction
+    private int batchSize = 500;
+    
+    // Pause between batches so purge never saturates the database
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+    
+    // Upper bound on batches per run; the rest waits for the next run
+    private int maxBatchesPerRun = 100;
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public String getCron() {
+        return cron;
+    }
+    
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+    
+    public Duration getRetention() {
+        return retention;
+    }
+    
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    public Duration getPauseBetweenBatches() {
+        return pauseBetweenBatches;
+    }
+    
+    public void setPauseBetweenBatches(Duration pauseBetweenBatches) {
+        this.pauseBetweenBatches = pauseBetweenBatches;
+    }
+    
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+    
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+}
@@ -0,0 +1,52 @@
+package com.whitefallen.cms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "cms.rendering")
+public class RenderingProperties {
+    
+    // Worker threads rendering bodies after writes
+    private int threads = 2;
+    
+    // Renders waiting for a worker; beyond this they are dropped and done on the first read instead
+    private int queueCapacity = 1000;
+    
+    // Missing renditions a read makes itself; the rest are queued and answered as pending
+    private int maxRendersPerRead = 20;
+    
+    // Stale renditions queued per backfill run, bounded by the free queue capacity
+    private int backfillBatchSize = 500;
+    
+    // Getters and Setters
+    public int getThreads() {
+        return threads;
+    }
+    
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public int getMaxRendersPerRead() {
+        return maxRendersPerRead;
+    }
+    
+    public void setMaxRendersPerRead(int maxRendersPerRead) {
+        this.maxRendersPerRead = maxRendersPerRead;
+    }
+    
+    public int getBackfillBatchSize() {
+        return backfillBatchSize;
+    }
+    
+    public void setBackfillBatchSize(int backfillBatchSize) {
+        this.backfillBatchSize = backfillBatchSize;
+    }
+}
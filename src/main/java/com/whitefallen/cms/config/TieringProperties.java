@@ -0,0 +1,90 @@
+package com.whitefallen.cms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cms.tiering")
+public class TieringProperties {
+    
+    // Off by default: the default database is in memory and starts empty, while archived bodies
+    // would outlive it on disk
+    private boolean enabled = false;
+    
+    // Where archived bodies are kept; one gzip file per content row. No default, since it must
+    // sit with the database files: required when tiering is enabled
+    private Path directory;
+    
+    // Content neither updated nor read for this long is moved to the archive
+    private Duration coldAfter = Duration.ofDays(90);
+    
+    // Rows archived per transaction
+    private int batchSize = 100;
+    
+    // Upper bound on batches per run; the rest waits for the next run
+    private int maxBatchesPerRun = 50;
+    
+    // Whether reading an archived row by id moves it back to the hot tier
+    private boolean promoteOnRead = true;
+    
+    // Reads promoting at the same time; further reads are served from the archive unpromoted
+    private int maxConcurrentPromotions = 4;
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+    
+    public Duration getColdAfter() {
+        return coldAfter;
+    }
+    
+    public void setColdAfter(Duration coldAfter) {
+        this.coldAfter = coldAfter;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+    
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+    
+    public boolean isPromoteOnRead() {
+        return promoteOnRead;
+    }
+    
+    public void setPromoteOnRead(boolean promoteOnRead) {
+        this.promoteOnRead = promoteOnRead;
+    }
+    
+    public int getMaxConcurrentPromotions() {
+        return maxConcurrentPromotions;
+    }
+    
+    public void setMaxConcurrentPromotions(int maxConcurrentPromotions) {
+        this.maxConcurrentPromotions = maxConcurrentPromotions;
+    }
+}
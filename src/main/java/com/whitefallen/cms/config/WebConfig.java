@@ -0,0 +1,23 @@
+package com.whitefallen.cms.config;
+
+import com.whitefallen.cms.limiter.ConcurrencyLimitInterceptor;
+import com.whitefallen.cms.limiter.LoadShedder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final LoadShedder loadShedder;
+    
+    public WebConfig(LoadShedder loadShedder) {
+        this.loadShedder = loadShedder;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(loadShedder))
+            .addPathPatterns("/api/**");
+    }
+}
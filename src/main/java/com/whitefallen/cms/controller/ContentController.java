@@ -1,47 +1,141 @@
 package com.whitefallen.cms.controller;
 
+import com.whitefallen.cms.dto.ContentPatchRequest;
 import com.whitefallen.cms.dto.ContentRequest;
 import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.dto.ContentStatsResponse;
+import com.whitefallen.cms.dto.MultiGetRequest;
+import com.whitefallen.cms.dto.MultiGetResponse;
+import com.whitefallen.cms.dto.TitleSuggestion;
+import com.whitefallen.cms.limiter.ConcurrencyLimited;
+import com.whitefallen.cms.limiter.EndpointClass;
+import com.whitefallen.cms.model.ContentRendition;
+import com.whitefallen.cms.rendering.ContentRenditions;
+import com.whitefallen.cms.rendering.ContentView;
+import com.whitefallen.cms.repository.ContentReadView;
+import com.whitefallen.cms.search.TitleIndex;
+import com.whitefallen.cms.service.ContentReadCoalescer;
 import com.whitefallen.cms.service.ContentService;
+import com.whitefallen.cms.stats.ContentStatistics;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/content")
 public class ContentController {
     
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_EDITS = 2;
+    private static final int MAX_STATS_DAYS = 366;
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    
     private final ContentService contentService;
+    private final ContentReadCoalescer readCoalescer;
+    private final TitleIndex titleIndex;
+    private final ContentStatistics statistics;
+    private final ContentRenditions renditions;
+    private final ContentListWriter listWriter;
     
-    public ContentController(ContentService contentService) {
+    public ContentController(ContentService contentService,
+                             ContentReadCoalescer readCoalescer,
+                             TitleIndex titleIndex,
+                             ContentStatistics statistics,
+                             ContentRenditions renditions,
+                             ContentListWriter listWriter) {
         this.contentService = contentService;
+        this.readCoalescer = readCoalescer;
+        this.titleIndex = titleIndex;
+        this.statistics = statistics;
+        this.renditions = renditions;
+        this.listWriter = listWriter;
     }
     
+    // Written from the rows directly; see ContentListWriter
     @GetMapping
-    public ResponseEntity<List<ContentResponse>> getAllContent(
-            @RequestParam(required = false) String search) {
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public void getAllContent(
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "raw") String view,
+            HttpServletResponse response) throws IOException {
         
-        if (search != null && !search.isEmpty()) {
-            return ResponseEntity.ok(contentService.searchContent(search));
+        ContentView contentView = ContentView.fromParameter(view);
+        boolean searching = search != null && !search.isEmpty();
+        List<ContentReadView> rows;
+        if (contentView == ContentView.RAW) {
+            rows = searching ? readCoalescer.searchContent(search) : contentService.getAllContent();
+        } else {
+            rows = searching ? readCoalescer.searchContentWithoutBody(search) : contentService.getAllContentWithoutBody();
         }
-        return ResponseEntity.ok(contentService.getAllContent());
+        Map<Long, ContentRendition> current = contentView == ContentView.RAW ? Map.of() : renditions.renditionsOf(rows);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        listWriter.write(rows, contentView, current, response.getOutputStream());
+    }
+    
+    @GetMapping(params = "ids")
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public ResponseEntity<MultiGetResponse> getContentByIds(
+            @RequestParam List<Long> ids,
+            @RequestParam(defaultValue = "raw") String view) {
+        ContentView contentView = ContentView.fromParameter(view);
+        return ResponseEntity.ok(getByIds(ids, contentView));
+    }
+    
+    @PostMapping("/_mget")
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public ResponseEntity<MultiGetResponse> multiGetContent(
+            @Valid @RequestBody MultiGetRequest request,
+            @RequestParam(defaultValue = "raw") String view) {
+        ContentView contentView = ContentView.fromParameter(view);
+        return ResponseEntity.ok(getByIds(request.getIds(), contentView));
+    }
+    
+    @GetMapping("/suggest")
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public ResponseEntity<List<TitleSuggestion>> suggestTitles(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0") int fuzziness) {
+        
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        int boundedEdits = Math.min(Math.max(fuzziness, 0), MAX_EDITS);
+        return ResponseEntity.ok(titleIndex.suggest(query, boundedLimit, boundedEdits));
+    }
+    
+    @GetMapping("/stats")
+    @ConcurrencyLimited(EndpointClass.READ)
+    public ResponseEntity<ContentStatsResponse> getStatistics(@RequestParam(defaultValue = "30") int days) {
+        int boundedDays = Math.min(Math.max(days, 1), MAX_STATS_DAYS);
+        return ResponseEntity.ok(statistics.snapshot(boundedDays));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ContentResponse> getContentById(@PathVariable Long id) {
-        return ResponseEntity.ok(contentService.getContentById(id));
+    @ConcurrencyLimited(EndpointClass.READ)
+    public ResponseEntity<ContentResponse> getContentById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "raw") String view) {
+        ContentView contentView = ContentView.fromParameter(view);
+        return ResponseEntity.ok(contentView == ContentView.RAW
+            ? readCoalescer.getContentById(id)
+            : renditions.present(readCoalescer.getContentWithoutBodyById(id), contentView));
     }
     
     @PostMapping
+    @ConcurrencyLimited(EndpointClass.WRITE)
     public ResponseEntity<ContentResponse> createContent(@Valid @RequestBody ContentRequest request) {
         ContentResponse created = contentService.createContent(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
     @PutMapping("/{id}")
+    @ConcurrencyLimited(EndpointClass.WRITE)
     public ResponseEntity<ContentResponse> updateContent(
             @PathVariable Long id,
             @Valid @RequestBody ContentRequest request) {
@@ -49,9 +143,29 @@ public class ContentController {
         return ResponseEntity.ok(updated);
     }
     
+    // JSON Merge Patch: only the members present in the document are changed
+    @PatchMapping(path = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    public ResponseEntity<ContentResponse> patchContent(
+            @PathVariable Long id,
+            @RequestBody ContentPatchRequest patch) {
+        ContentResponse patched = contentService.patchContent(id, patch);
+        return ResponseEntity.ok(patched);
+    }
+    
     @DeleteMapping("/{id}")
+    @ConcurrencyLimited(EndpointClass.WRITE)
     public ResponseEntity<Void> deleteContent(@PathVariable Long id) {
         contentService.deleteContent(id);
         return ResponseEntity.noContent().build();
     }
+    
+    // Other views than raw replace the body with its stored renditions, so they load the rows without it
+    private MultiGetResponse getByIds(List<Long> ids, ContentView view) {
+        if (view == ContentView.RAW) {
+            return contentService.getContentByIds(ids);
+        }
+        MultiGetResponse response = contentService.getContentWithoutBodyByIds(ids);
+        return new MultiGetResponse(renditions.present(response.getItems(), view), response.getMissingIds());
+    }
 }
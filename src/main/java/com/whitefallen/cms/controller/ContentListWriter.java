@@ -0,0 +1,120 @@
+package com.whitefallen.cms.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whitefallen.cms.model.ContentRendition;
+import com.whitefallen.cms.rendering.ContentView;
+import com.whitefallen.cms.repository.ContentReadView;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes content lists to the response straight from {@link ContentReadView} rows,
+ * with no {@code ContentResponse} per row, and formats timestamps into a reused
+ * buffer. The rows are loaded in full beforehand, so no database connection is held
+ * while the client reads. The output is the same JSON that the equivalent list of
+ * {@code ContentResponse} serializes to, in every view.
+ */
+@Component
+public class ContentListWriter {
+    
+    // Pre-encoded field names, so they are not re-escaped for every row
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString BODY = new SerializedString("body");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString PUBLISH_AT = new SerializedString("publishAt");
+    private static final SerializableString UNPUBLISH_AT = new SerializedString("unpublishAt");
+    private static final SerializableString VISIBLE = new SerializedString("visible");
+    private static final SerializableString HTML = new SerializedString("html");
+    private static final SerializableString EXCERPT = new SerializedString("excerpt");
+    private static final SerializableString WORD_COUNT = new SerializedString("wordCount");
+    private static final SerializableString RENDER_PENDING = new SerializedString("renderPending");
+    
+    private final JsonFactory jsonFactory;
+    
+    public ContentListWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+    
+    /**
+     * Writes the rows to {@code out} as a JSON array. The raw view writes each row's
+     * body; the other views write its rendition from {@code renditions}, or mark the
+     * row as pending if it has none. The stream is flushed but left open.
+     */
+    public void write(List<ContentReadView> rows, ContentView view, Map<Long, ContentRendition> renditions,
+                      OutputStream out) throws IOException {
+        IsoTimestampBuffer timestamps = new IsoTimestampBuffer();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            for (ContentReadView row : rows) {
+                writeRow(generator, row, view, renditions.get(row.getId()), timestamps);
+            }
+            generator.writeEndArray();
+        }
+    }
+    
+    private static void writeRow(JsonGenerator generator, ContentReadView row, ContentView view,
+                                 ContentRendition rendition, IsoTimestampBuffer timestamps) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(row.getId());
+        generator.writeFieldName(TITLE);
+        generator.writeString(row.getTitle());
+        if (view == ContentView.RAW && row.getBody() != null) {
+            generator.writeFieldName(BODY);
+            generator.writeString(row.getBody());
+        }
+        generator.writeFieldName(CREATED_AT);
+        writeTimestamp(generator, row.getCreatedAt(), timestamps);
+        generator.writeFieldName(UPDATED_AT);
+        writeTimestamp(generator, row.getUpdatedAt(), timestamps);
+        generator.writeFieldName(PUBLISH_AT);
+        writeTimestamp(generator, row.getPublishAt(), timestamps);
+        generator.writeFieldName(UNPUBLISH_AT);
+        writeTimestamp(generator, row.getUnpublishAt(), timestamps);
+        generator.writeFieldName(VISIBLE);
+        generator.writeBoolean(row.isVisible());
+        if (view != ContentView.RAW) {
+            writeRendition(generator, view, rendition);
+        }
+        generator.writeEndObject();
+    }
+    
+    private static void writeRendition(JsonGenerator generator, ContentView view, ContentRendition rendition)
+            throws IOException {
+        if (rendition == null) {
+            generator.writeFieldName(RENDER_PENDING);
+            generator.writeBoolean(true);
+            return;
+        }
+        if (view == ContentView.HTML) {
+            generator.writeFieldName(HTML);
+            generator.writeString(rendition.getHtml());
+        } else {
+            generator.writeFieldName(EXCERPT);
+            generator.writeString(rendition.getExcerpt());
+        }
+        generator.writeFieldName(WORD_COUNT);
+        generator.writeNumber(rendition.getWordCount());
+    }
+    
+    private static void writeTimestamp(JsonGenerator generator, LocalDateTime value,
+                                       IsoTimestampBuffer timestamps) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(timestamps.format(value), 0, timestamps.length());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.whitefallen.cms.controller;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reusable buffer that formats a {@link LocalDateTime} the way
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} does, which is also what Jackson writes,
+ * without allocating a String per value. Not thread-safe; use one instance per response.
+ */
+class IsoTimestampBuffer {
+    
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private final char[] chars = new char[29];
+    private int length;
+    
+    /**
+     * Formats the value into the buffer and returns the buffer. Only the first
+     * {@link #length()} characters are valid.
+     */
+    char[] format(LocalDateTime value) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            // Outside four digits ISO adds a sign; rare enough to take the allocating path
+            String text = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+            text.getChars(0, text.length(), chars, 0);
+            length = text.length();
+            return chars;
+        }
+        
+        int pos = digits(year, 4, 0);
+        chars[pos++] = '-';
+        pos = digits(value.getMonthValue(), 2, pos);
+        chars[pos++] = '-';
+        pos = digits(value.getDayOfMonth(), 2, pos);
+        chars[pos++] = 'T';
+        pos = digits(value.getHour(), 2, pos);
+        chars[pos++] = ':';
+        pos = digits(value.getMinute(), 2, pos);
+        chars[pos++] = ':';
+        pos = digits(value.getSecond(), 2, pos);
+        
+        int nano = value.getNano();
+        if (nano > 0) {
+            // ISO prints as many fraction digits as needed, dropping trailing zeros
+            chars[pos++] = '.';
+            int end = digits(nano, 9, pos);
+            while (chars[end - 1] == '0') {
+                end--;
+            }
+            pos = end;
+        }
+        length = pos;
+        return chars;
+    }
+    
+    int length() {
+        return length;
+    }
+    
+    private int digits(int value, int width, int pos) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
@@ -0,0 +1,86 @@
+package com.whitefallen.cms.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A JSON Merge Patch (RFC 7396) for content. Jackson only calls the setters of members
+ * present in the document, so each setter also records that its field was supplied:
+ * absent fields are left unchanged and an explicit {@code null} clears the field.
+ * Supplied fields are validated against the constraints of {@link ContentRequest}.
+ */
+public class ContentPatchRequest {
+    
+    private String title;
+    private boolean titlePresent;
+    
+    private String body;
+    private boolean bodyPresent;
+    
+    private LocalDateTime publishAt;
+    private boolean publishAtPresent;
+    
+    private LocalDateTime unpublishAt;
+    private boolean unpublishAtPresent;
+    
+    // Constructors
+    public ContentPatchRequest() {
+    }
+    
+    // Getters and Setters
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+        this.titlePresent = true;
+    }
+    
+    public boolean hasTitle() {
+        return titlePresent;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public void setBody(String body) {
+        this.body = body;
+        this.bodyPresent = true;
+    }
+    
+    public boolean hasBody() {
+        return bodyPresent;
+    }
+    
+    public LocalDateTime getPublishAt() {
+        return publishAt;
+    }
+    
+    public void setPublishAt(LocalDateTime publishAt) {
+        this.publishAt = publishAt;
+        this.publishAtPresent = true;
+    }
+    
+    public boolean hasPublishAt() {
+        return publishAtPresent;
+    }
+    
+    public LocalDateTime getUnpublishAt() {
+        return unpublishAt;
+    }
+    
+    public void setUnpublishAt(LocalDateTime unpublishAt) {
+        this.unpublishAt = unpublishAt;
+        this.unpublishAtPresent = true;
+    }
+    
+    public boolean hasUnpublishAt() {
+        return unpublishAtPresent;
+    }
+    
+    // False for an empty document, which changes nothing
+    public boolean hasAnyField() {
+        return titlePresent || bodyPresent || publishAtPresent || unpublishAtPresent;
+    }
+}
@@ -3,6 +3,8 @@ package com.whitefallen.cms.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.LocalDateTime;
+
 public class ContentRequest {
     
     @NotBlank(message = "Title is required")
@@ -12,6 +14,10 @@ public class ContentRequest {
     @NotBlank(message = "Body is required")
     private String body;
     
+    // Optional embargo window; see Content
+    private LocalDateTime publishAt;
+    private LocalDateTime unpublishAt;
+    
     // Constructors
     public ContentRequest() {
     }
@@ -37,4 +43,20 @@ public class ContentRequest {
     public void setBody(String body) {
         this.body = body;
     }
+    
+    public LocalDateTime getPublishAt() {
+        return publishAt;
+    }
+    
+    public void setPublishAt(LocalDateTime publishAt) {
+        this.publishAt = publishAt;
+    }
+    
+    public LocalDateTime getUnpublishAt() {
+        return unpublishAt;
+    }
+    
+    public void setUnpublishAt(LocalDateTime unpublishAt) {
+        this.unpublishAt = unpublishAt;
+    }
 }
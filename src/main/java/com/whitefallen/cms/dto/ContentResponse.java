@@ -1,5 +1,7 @@
 package com.whitefallen.cms.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.whitefallen.cms.model.Content;
 import java.time.LocalDateTime;
 
@@ -7,9 +9,34 @@ public class ContentResponse {
     
     private Long id;
     private String title;
+    
+    // Left out in the html and summary views
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String body;
+    
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime publishAt;
+    private LocalDateTime unpublishAt;
+    private boolean visible = true;
+    
+    // Rendered forms, present only in the views that ask for them
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String html;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String excerpt;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer wordCount;
+    
+    // True instead of the rendered forms while the rendition is still being made
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean renderPending;
+    
+    // Identifies the body version for renditions
+    @JsonIgnore
+    private String bodyHash;
     
     // Constructors
     public ContentResponse() {
@@ -25,13 +52,25 @@ public class ContentResponse {
     
     // Factory method to create from Content entity
     public static ContentResponse fromContent(Content content) {
-        return new ContentResponse(
+        ContentResponse response = withoutBody(content);
+        response.setBody(content.getBody());
+        return response;
+    }
+    
+    // Leaves a lazily loaded body unread; the hash comes from the foreign key
+    public static ContentResponse withoutBody(Content content) {
+        ContentResponse response = new ContentResponse(
             content.getId(),
             content.getTitle(),
-            content.getBody(),
+            null,
             content.getCreatedAt(),
             content.getUpdatedAt()
         );
+        response.setPublishAt(content.getPublishAt());
+        response.setUnpublishAt(content.getUnpublishAt());
+        response.setVisible(content.isVisible());
+        response.setBodyHash(content.getBodyHash());
+        return response;
     }
     
     // Getters and Setters
@@ -74,4 +113,68 @@ public class ContentResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public LocalDateTime getPublishAt() {
+        return publishAt;
+    }
+    
+    public void setPublishAt(LocalDateTime publishAt) {
+        this.publishAt = publishAt;
+    }
+    
+    public LocalDateTime getUnpublishAt() {
+        return unpublishAt;
+    }
+    
+    public void setUnpublishAt(LocalDateTime unpublishAt) {
+        this.unpublishAt = unpublishAt;
+    }
+    
+    public boolean isVisible() {
+        return visible;
+    }
+    
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+    
+    public String getHtml() {
+        return html;
+    }
+    
+    public void setHtml(String html) {
+        this.html = html;
+    }
+    
+    public String getExcerpt() {
+        return excerpt;
+    }
+    
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+    
+    public Integer getWordCount() {
+        return wordCount;
+    }
+    
+    public void setWordCount(Integer wordCount) {
+        this.wordCount = wordCount;
+    }
+    
+    public Boolean getRenderPending() {
+        return renderPending;
+    }
+    
+    public void setRenderPending(Boolean renderPending) {
+        this.renderPending = renderPending;
+    }
+    
+    public String getBodyHash() {
+        return bodyHash;
+    }
+    
+    public void setBodyHash(String bodyHash) {
+        this.bodyHash = bodyHash;
+    }
 }
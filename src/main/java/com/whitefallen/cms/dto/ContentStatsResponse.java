@@ -0,0 +1,87 @@
+package com.whitefallen.cms.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class ContentStatsResponse {
+    
+    private long totalCount;
+    
+    // Rows keyed by the day of createdAt / updatedAt; days without rows are left out
+    private Map<LocalDate, Long> createdPerDay;
+    private Map<LocalDate, Long> updatedPerDay;
+    
+    private SizeDistribution titleLength;
+    private SizeDistribution bodyLength;
+    
+    // When the counters were last checked against the database
+    private LocalDateTime reconciledAt;
+    
+    // Constructors
+    public ContentStatsResponse() {
+    }
+    
+    public ContentStatsResponse(long totalCount,
+                                Map<LocalDate, Long> createdPerDay,
+                                Map<LocalDate, Long> updatedPerDay,
+                                SizeDistribution titleLength,
+                                SizeDistribution bodyLength,
+                                LocalDateTime reconciledAt) {
+        this.totalCount = totalCount;
+        this.createdPerDay = createdPerDay;
+        this.updatedPerDay = updatedPerDay;
+        this.titleLength = titleLength;
+        this.bodyLength = bodyLength;
+        this.reconciledAt = reconciledAt;
+    }
+    
+    // Getters and Setters
+    public long getTotalCount() {
+        return totalCount;
+    }
+    
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+    
+    public Map<LocalDate, Long> getCreatedPerDay() {
+        return createdPerDay;
+    }
+    
+    public void setCreatedPerDay(Map<LocalDate, Long> createdPerDay) {
+        this.createdPerDay = createdPerDay;
+    }
+    
+    public Map<LocalDate, Long> getUpdatedPerDay() {
+        return updatedPerDay;
+    }
+    
+    public void setUpdatedPerDay(Map<LocalDate, Long> updatedPerDay) {
+        this.updatedPerDay = updatedPerDay;
+    }
+    
+    public SizeDistribution getTitleLength() {
+        return titleLength;
+    }
+    
+    public void setTitleLength(SizeDistribution titleLength) {
+        this.titleLength = titleLength;
+    }
+    
+    public SizeDistribution getBodyLength() {
+        return bodyLength;
+    }
+    
+    public void setBodyLength(SizeDistribution bodyLength) {
+        this.bodyLength = bodyLength;
+    }
+    
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+    
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
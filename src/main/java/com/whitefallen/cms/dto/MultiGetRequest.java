@@ -0,0 +1,29 @@
+package com.whitefallen.cms.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class MultiGetRequest {
+    
+    @NotEmpty(message = "At least one id is required")
+    private List<@NotNull(message = "Ids must not be null") Long> ids;
+    
+    // Constructors
+    public MultiGetRequest() {
+    }
+    
+    public MultiGetRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
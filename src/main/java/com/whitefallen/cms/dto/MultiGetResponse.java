@@ -0,0 +1,38 @@
+package com.whitefallen.cms.dto;
+
+import java.util.List;
+
+public class MultiGetResponse {
+    
+    // Found content, in the order the ids were requested
+    private List<ContentResponse> items;
+    
+    // Requested ids that do not exist, in request order
+    private List<Long> missingIds;
+    
+    // Constructors
+    public MultiGetResponse() {
+    }
+    
+    public MultiGetResponse(List<ContentResponse> items, List<Long> missingIds) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+    
+    // Getters and Setters
+    public List<ContentResponse> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ContentResponse> items) {
+        this.items = items;
+    }
+    
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+    
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
@@ -0,0 +1,47 @@
+package com.whitefallen.cms.dto;
+
+import java.util.Map;
+
+public class SizeDistribution {
+    
+    private long count;
+    private double average;
+    
+    // Row counts keyed by length range, e.g. "64-255", in ascending order
+    private Map<String, Long> buckets;
+    
+    // Constructors
+    public SizeDistribution() {
+    }
+    
+    public SizeDistribution(long count, double average, Map<String, Long> buckets) {
+        this.count = count;
+        this.average = average;
+        this.buckets = buckets;
+    }
+    
+    // Getters and Setters
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public double getAverage() {
+        return average;
+    }
+    
+    public void setAverage(double average) {
+        this.average = average;
+    }
+    
+    public Map<String, Long> getBuckets() {
+        return buckets;
+    }
+    
+    public void setBuckets(Map<String, Long> buckets) {
+        this.buckets = buckets;
+    }
+}
@@ -0,0 +1,33 @@
+package com.whitefallen.cms.dto;
+
+public class TitleSuggestion {
+    
+    private Long id;
+    private String title;
+    
+    // Constructors
+    public TitleSuggestion() {
+    }
+    
+    public TitleSuggestion(Long id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
@@ -0,0 +1,68 @@
+package com.whitefallen.cms.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency using AIMD (additive increase,
+ * multiplicative decrease). A response slower than the latency threshold, or a failed
+ * one, shrinks the limit by the backoff ratio; a fast response while the limiter is
+ * at least half used grows it by one.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+    
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(latencyNanos, failed, inFlightAtCompletion);
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    private synchronized void onSample(long latencyNanos, boolean failed, int inFlightAtCompletion) {
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlightAtCompletion * 2 >= limit) {
+            // Only grow while the limit is actually being used, otherwise it drifts to max
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.whitefallen.cms.limiter;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Applies {@link LoadShedder} to handlers annotated with {@link ConcurrencyLimited}.
+ * Rejections surface as {@link com.whitefallen.cms.service.ServiceUnavailableException}
+ * and are rendered by the global exception handler.
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+    
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+    
+    private final LoadShedder loadShedder;
+    
+    public ConcurrencyLimitInterceptor(LoadShedder loadShedder) {
+        this.loadShedder = loadShedder;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        // The permit taken on the original dispatch stays held while an async response completes
+        if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+        ConcurrencyLimited limited = handlerMethod.getMethodAnnotation(ConcurrencyLimited.class);
+        if (limited == null) {
+            return true;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, loadShedder.acquire(limited.value()));
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof LoadShedder.Permit loadPermit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            loadPermit.release(ex != null || response.getStatus() >= 500);
+        }
+    }
+}
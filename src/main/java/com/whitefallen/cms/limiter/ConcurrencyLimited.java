@@ -0,0 +1,19 @@
+package com.whitefallen.cms.limiter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller method as subject to the adaptive concurrency limit of the
+ * given endpoint class. Handlers without this annotation are never shed.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+    
+    EndpointClass value();
+}
@@ -0,0 +1,18 @@
+package com.whitefallen.cms.limiter;
+
+/**
+ * Groups endpoints that share a concurrency limit. Each class is admitted until
+ * total in-flight requests reach its share of the global cap, so classes with
+ * a smaller share are shed first when the server is saturated.
+ */
+public enum EndpointClass {
+    
+    // Single-id lookups: cheap and most important, shed last
+    READ,
+    
+    // List, search and other multi-row reads
+    SEARCH,
+    
+    // Create, update and delete
+    WRITE
+}
@@ -0,0 +1,124 @@
+package com.whitefallen.cms.limiter;
+
+import com.whitefallen.cms.config.ConcurrencyLimitProperties;
+import com.whitefallen.cms.service.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits or rejects requests per endpoint class. A request must fit under its class's
+ * adaptive limit and under that class's share of the global concurrency cap, so when
+ * the server fills up, search is shed before writes and writes before single-id reads.
+ */
+@Component
+public class LoadShedder {
+    
+    private final ConcurrencyLimitProperties properties;
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+    
+    public LoadShedder(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            ConcurrencyLimitProperties.Limit limit = properties.forClass(endpointClass);
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                limit.getInitialLimit(),
+                limit.getMinLimit(),
+                limit.getMaxLimit(),
+                limit.getLatencyThreshold().toNanos(),
+                limit.getBackoffRatio()
+            );
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            limiters.put(endpointClass, limiter);
+            rejections.put(endpointClass, Counter.builder("cms.limiter.rejected")
+                .tag("class", tag)
+                .register(meterRegistry));
+            Gauge.builder("cms.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("class", tag)
+                .register(meterRegistry);
+            Gauge.builder("cms.limiter.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("class", tag)
+                .register(meterRegistry);
+        }
+    }
+    
+    /**
+     * Claims a slot for a request of the given class.
+     *
+     * @throws ServiceUnavailableException if the request should be shed
+     */
+    public Permit acquire(EndpointClass endpointClass) {
+        if (!properties.isEnabled()) {
+            return new Permit(null, 0);
+        }
+        
+        if (!tryAcquireGlobal(endpointClass)) {
+            throw reject(endpointClass);
+        }
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            totalInFlight.decrementAndGet();
+            throw reject(endpointClass);
+        }
+        return new Permit(limiter, System.nanoTime());
+    }
+    
+    public AdaptiveConcurrencyLimiter getLimiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+    
+    private boolean tryAcquireGlobal(EndpointClass endpointClass) {
+        double shedAt = properties.forClass(endpointClass).getShedAt();
+        int admissible = (int) Math.ceil(properties.getMaxTotalConcurrency() * shedAt);
+        while (true) {
+            int current = totalInFlight.get();
+            if (current >= admissible) {
+                return false;
+            }
+            if (totalInFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    private ServiceUnavailableException reject(EndpointClass endpointClass) {
+        rejections.get(endpointClass).increment();
+        return new ServiceUnavailableException(
+            "Server is overloaded, please retry later",
+            properties.getRetryAfter()
+        );
+    }
+    
+    public final class Permit {
+        
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long startNanos;
+        private boolean released;
+        
+        private Permit(AdaptiveConcurrencyLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+        
+        /**
+         * Returns the slot and feeds the observed latency back into the limiter.
+         * Safe to call more than once; only the first call counts.
+         */
+        public void release(boolean failed) {
+            if (released || limiter == null) {
+                return;
+            }
+            released = true;
+            totalInFlight.decrementAndGet();
+            limiter.release(System.nanoTime() - startNanos, failed);
+        }
+    }
+}
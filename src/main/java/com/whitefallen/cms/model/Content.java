@@ -3,12 +3,22 @@ package com.whitefallen.cms.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "content")
+@Table(name = "content", indexes = {
+    @Index(name = "idx_content_deleted_at", columnList = "deleted, deleted_at"),
+    @Index(name = "idx_content_tiering", columnList = "archived, updated_at")
+})
+// Soft-deleted rows stay in the table until purged but are invisible to every entity query
+@SQLRestriction("deleted = false")
+// UPDATEs only write the columns that changed, so a title edit leaves the other columns alone
+@DynamicUpdate
 public class Content {
     
+    // The prod profile maps this to a pooled sequence instead; see META-INF/orm-prod.xml
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -18,9 +28,10 @@ public class Content {
     @Column(nullable = false)
     private String title;
     
-    @NotBlank(message = "Body is required")
-    @Column(columnDefinition = "TEXT")
-    private String body;
+    // Bodies are stored once per distinct text; see ContentBody
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "body_hash")
+    private ContentBody bodyBlob;
     
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -28,10 +39,45 @@ public class Content {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Embargo window; null publishAt means visible from creation, null unpublishAt means never expires
+    @Column(name = "publish_at")
+    private LocalDateTime publishAt;
+    
+    @Column(name = "unpublish_at")
+    private LocalDateTime unpublishAt;
+    
+    // Materialized from the window by the service and the publication scheduler, so that
+    // reads filter on a flag instead of comparing timestamps per request
+    @Column(nullable = false)
+    private boolean visible = true;
+    
+    // Cold rows keep their metadata here while the body lives in ContentArchive; bodyBlob is
+    // null meanwhile, the length is kept for statistics and the hash for renditions
+    @Column(nullable = false)
+    private boolean archived = false;
+    
+    @Column(name = "archived_body_length")
+    private Integer archivedBodyLength;
+    
+    @Column(name = "archived_body_hash", length = 64)
+    private String archivedBodyHash;
+    
+    // Refreshed in bulk from reads by ContentTiering, at most once per mover run
+    @Column(name = "last_accessed_at")
+    private LocalDateTime lastAccessedAt;
+    
+    @Column(nullable = false)
+    private boolean deleted = false;
+    
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+    
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        // One clock read, so a new row's createdAt and updatedAt are identical
+        LocalDateTime now = LocalDateTime.now();
+        createdAt = now;
+        updatedAt = now;
     }
     
     @PreUpdate
@@ -43,9 +89,15 @@ public class Content {
     public Content() {
     }
     
-    public Content(String title, String body) {
+    // Bodies are shared between rows and must be obtained from ContentBodyStore
+    public Content(String title, ContentBody bodyBlob) {
         this.title = title;
-        this.body = body;
+        this.bodyBlob = bodyBlob;
+    }
+    
+    public static boolean isVisibleAt(LocalDateTime publishAt, LocalDateTime unpublishAt, LocalDateTime now) {
+        return (publishAt == null || !publishAt.isAfter(now))
+            && (unpublishAt == null || unpublishAt.isAfter(now));
     }
     
     // Getters and Setters
@@ -66,11 +118,19 @@ public class Content {
     }
     
     public String getBody() {
-        return body;
+        return bodyBlob == null ? null : bodyBlob.getBody();
+    }
+    
+    public String getBodyHash() {
+        return bodyBlob == null ? null : bodyBlob.getHash();
     }
     
-    public void setBody(String body) {
-        this.body = body;
+    public ContentBody getBodyBlob() {
+        return bodyBlob;
+    }
+    
+    public void setBodyBlob(ContentBody bodyBlob) {
+        this.bodyBlob = bodyBlob;
     }
     
     public LocalDateTime getCreatedAt() {
@@ -88,4 +148,76 @@ public class Content {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public boolean isDeleted() {
+        return deleted;
+    }
+    
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+    
+    public LocalDateTime getPublishAt() {
+        return publishAt;
+    }
+    
+    public void setPublishAt(LocalDateTime publishAt) {
+        this.publishAt = publishAt;
+    }
+    
+    public LocalDateTime getUnpublishAt() {
+        return unpublishAt;
+    }
+    
+    public void setUnpublishAt(LocalDateTime unpublishAt) {
+        this.unpublishAt = unpublishAt;
+    }
+    
+    public boolean isVisible() {
+        return visible;
+    }
+    
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+    
+    public boolean isArchived() {
+        return archived;
+    }
+    
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+    
+    public Integer getArchivedBodyLength() {
+        return archivedBodyLength;
+    }
+    
+    public void setArchivedBodyLength(Integer archivedBodyLength) {
+        this.archivedBodyLength = archivedBodyLength;
+    }
+    
+    public String getArchivedBodyHash() {
+        return archivedBodyHash;
+    }
+    
+    public void setArchivedBodyHash(String archivedBodyHash) {
+        this.archivedBodyHash = archivedBodyHash;
+    }
+    
+    public LocalDateTime getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+    
+    public void setLastAccessedAt(LocalDateTime lastAccessedAt) {
+        this.lastAccessedAt = lastAccessedAt;
+    }
 }
@@ -0,0 +1,78 @@
+package com.whitefallen.cms.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A body stored once per distinct text, addressed by its SHA-256 hash. Content rows
+ * point at it by hash; refCount tracks how many rows (including soft-deleted ones
+ * not yet purged) reference it.
+ */
+@Entity
+@Table(name = "content_body")
+public class ContentBody {
+    
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    @NotBlank(message = "Body is required")
+    @Column(columnDefinition = "TEXT", nullable = false, updatable = false)
+    private String body;
+    
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+    
+    // Constructors
+    public ContentBody() {
+    }
+    
+    public ContentBody(String body) {
+        this(hashOf(body), body);
+    }
+    
+    public ContentBody(String hash, String body) {
+        this.hash = hash;
+        this.body = body;
+        this.refCount = 1;
+    }
+    
+    public static String hashOf(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+    
+    // Getters and Setters
+    public String getHash() {
+        return hash;
+    }
+    
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public void setBody(String body) {
+        this.body = body;
+    }
+    
+    public long getRefCount() {
+        return refCount;
+    }
+    
+    public void setRefCount(long refCount) {
+        this.refCount = refCount;
+    }
+}
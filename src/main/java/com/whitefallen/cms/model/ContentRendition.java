@@ -0,0 +1,107 @@
+package com.whitefallen.cms.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Derived forms of a content body, rendered once per write and stored next to the
+ * content row under the same id. A rendition records the body hash and renderer
+ * version it was produced from; when either differs from the current ones it is
+ * stale and rendered again.
+ */
+@Entity
+@Table(name = "content_rendition")
+public class ContentRendition {
+    
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+    
+    @Column(name = "body_hash", length = 64, nullable = false)
+    private String bodyHash;
+    
+    @Column(name = "renderer_version", nullable = false)
+    private int rendererVersion;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String html;
+    
+    @Column(length = 300, nullable = false)
+    private String excerpt;
+    
+    @Column(name = "word_count", nullable = false)
+    private int wordCount;
+    
+    @Column(name = "rendered_at", nullable = false)
+    private LocalDateTime renderedAt;
+    
+    // Constructors
+    public ContentRendition() {
+    }
+    
+    public ContentRendition(Long contentId) {
+        this.contentId = contentId;
+    }
+    
+    public boolean isCurrentFor(String bodyHash, int rendererVersion) {
+        return this.rendererVersion == rendererVersion && this.bodyHash.equals(bodyHash);
+    }
+    
+    // Getters and Setters
+    public Long getContentId() {
+        return contentId;
+    }
+    
+    public void setContentId(Long contentId) {
+        this.contentId = contentId;
+    }
+    
+    public String getBodyHash() {
+        return bodyHash;
+    }
+    
+    public void setBodyHash(String bodyHash) {
+        this.bodyHash = bodyHash;
+    }
+    
+    public int getRendererVersion() {
+        return rendererVersion;
+    }
+    
+    public void setRendererVersion(int rendererVersion) {
+        this.rendererVersion = rendererVersion;
+    }
+    
+    public String getHtml() {
+        return html;
+    }
+    
+    public void setHtml(String html) {
+        this.html = html;
+    }
+    
+    public String getExcerpt() {
+        return excerpt;
+    }
+    
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+    
+    public int getWordCount() {
+        return wordCount;
+    }
+    
+    public void setWordCount(int wordCount) {
+        this.wordCount = wordCount;
+    }
+    
+    public LocalDateTime getRenderedAt() {
+        return renderedAt;
+    }
+    
+    public void setRenderedAt(LocalDateTime renderedAt) {
+        this.renderedAt = renderedAt;
+    }
+}
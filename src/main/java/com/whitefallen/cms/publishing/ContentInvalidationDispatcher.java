@@ -0,0 +1,36 @@
+package com.whitefallen.cms.publishing;
+
+import com.whitefallen.cms.service.ContentChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fans committed {@link ContentChangedEvent}s out to every {@link ContentInvalidationHook}.
+ * A failing hook is logged and does not keep the others from running.
+ */
+@Component
+public class ContentInvalidationDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContentInvalidationDispatcher.class);
+    
+    private final ObjectProvider<ContentInvalidationHook> hooks;
+    
+    public ContentInvalidationDispatcher(ObjectProvider<ContentInvalidationHook> hooks) {
+        this.hooks = hooks;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        hooks.orderedStream().forEach(hook -> {
+            try {
+                hook.invalidate(event);
+            } catch (RuntimeException ex) {
+                log.warn("Invalidation hook {} failed for content {}",
+                    hook.getClass().getSimpleName(), event.getContentId(), ex);
+            }
+        });
+    }
+}
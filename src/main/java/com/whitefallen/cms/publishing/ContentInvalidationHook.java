@@ -0,0 +1,14 @@
+package com.whitefallen.cms.publishing;
+
+import com.whitefallen.cms.service.ContentChangedEvent;
+
+/**
+ * Extension point for purging caches or CDN entries that hold content. Every bean
+ * implementing this interface is called once a change has committed, including the
+ * visibility flips made by {@link PublicationScheduler} when a publish or unpublish
+ * time arrives.
+ */
+public interface ContentInvalidationHook {
+    
+    void invalidate(ContentChangedEvent event);
+}
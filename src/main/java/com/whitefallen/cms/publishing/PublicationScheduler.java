@@ -0,0 +1,181 @@
+package com.whitefallen.cms.publishing;
+
+import com.whitefallen.cms.config.PublishingProperties;
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.repository.PublicationView;
+import com.whitefallen.cms.service.ContentChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Flips {@link Content#isVisible()} when a publish or unpublish time arrives. Pending
+ * times sit in a {@link TimingWheel}, so scheduling costs O(1) and each tick only looks
+ * at what is due instead of scanning the table by time range. The wheel is filled from
+ * the database at startup and kept current from {@link ContentChangedEvent}s.
+ *
+ * A due entry only names a row; its visibility is re-derived from the window stored at
+ * that moment, so entries left behind by an edited window find nothing to change.
+ */
+@Component
+public class PublicationScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(PublicationScheduler.class);
+    private static final int BATCH_SIZE = 500;
+    
+    private final ContentRepository contentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PublishingProperties properties;
+    private final TimingWheel<Long> wheel;
+    private final Counter transitions;
+    
+    public PublicationScheduler(ContentRepository contentRepository,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                PublishingProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.contentRepository = contentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), properties.getWheelSize(),
+            toMillis(LocalDateTime.now()));
+        this.transitions = Counter.builder("cms.publishing.transitions")
+            .description("Content rows whose visibility was flipped by the scheduler")
+            .register(meterRegistry);
+        Gauge.builder("cms.publishing.pending", this, PublicationScheduler::pending)
+            .description("Publish and unpublish times waiting in the timer wheel")
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PublicationView> pending = contentRepository.findPendingPublications(now);
+        for (PublicationView view : pending) {
+            schedule(view.getId(), view.getPublishAt(), now);
+            schedule(view.getId(), view.getUnpublishAt(), now);
+        }
+        int corrected = apply(contentRepository.findIdsWithStaleVisibility(now), now);
+        log.info("Publication scheduler loaded {} rows with pending times, corrected {} stale rows",
+            pending.size(), corrected);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        ContentResponse current = event.getCurrent();
+        ContentResponse previous = event.getPrevious();
+        if (current == null) {
+            return;
+        }
+        // An unchanged window is already scheduled; this also covers the scheduler's own flips
+        if (previous != null
+                && Objects.equals(previous.getPublishAt(), current.getPublishAt())
+                && Objects.equals(previous.getUnpublishAt(), current.getUnpublishAt())) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        schedule(current.getId(), current.getPublishAt(), now);
+        schedule(current.getId(), current.getUnpublishAt(), now);
+    }
+    
+    @Scheduled(fixedDelayString = "${cms.publishing.tick:PT1S}")
+    public void tick() {
+        if (properties.isEnabled()) {
+            runDue(LocalDateTime.now());
+        }
+    }
+    
+    /**
+     * Advances the wheel to {@code now} and applies every transition that came due.
+     * Returns the number of rows whose visibility changed.
+     */
+    public int runDue(LocalDateTime now) {
+        Set<Long> due = new LinkedHashSet<>();
+        synchronized (wheel) {
+            wheel.advance(toMillis(now), due::add);
+        }
+        return apply(due, now);
+    }
+    
+    public int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+    
+    private void schedule(Long id, LocalDateTime at, LocalDateTime now) {
+        if (at != null && at.isAfter(now)) {
+            synchronized (wheel) {
+                wheel.add(toMillis(at), id);
+            }
+        }
+    }
+    
+    private int apply(Collection<Long> ids, LocalDateTime now) {
+        List<Long> remaining = new ArrayList<>(ids);
+        int changed = 0;
+        for (int from = 0; from < remaining.size(); from += BATCH_SIZE) {
+            List<Long> batch = remaining.subList(from, Math.min(from + BATCH_SIZE, remaining.size()));
+            Integer flipped = transactionTemplate.execute(status -> flip(batch, now));
+            changed += flipped == null ? 0 : flipped;
+        }
+        transitions.increment(changed);
+        return changed;
+    }
+    
+    // Reads only the window, so flip events carry no body; the body does not change
+    private int flip(List<Long> ids, LocalDateTime now) {
+        List<Long> shown = new ArrayList<>();
+        List<Long> hidden = new ArrayList<>();
+        List<ContentChangedEvent> events = new ArrayList<>();
+        for (PublicationView row : contentRepository.findPublicationsForUpdate(ids)) {
+            boolean visible = Content.isVisibleAt(row.getPublishAt(), row.getUnpublishAt(), now);
+            if (visible != row.isVisible()) {
+                (visible ? shown : hidden).add(row.getId());
+                events.add(ContentChangedEvent.updated(responseOf(row, row.isVisible()), responseOf(row, visible)));
+            }
+        }
+        if (!shown.isEmpty()) {
+            contentRepository.showIfWindowOpen(shown, now);
+        }
+        if (!hidden.isEmpty()) {
+            contentRepository.hideIfWindowClosed(hidden, now);
+        }
+        events.forEach(eventPublisher::publishEvent);
+        return events.size();
+    }
+    
+    private static ContentResponse responseOf(PublicationView row, boolean visible) {
+        ContentResponse response = new ContentResponse(row.getId(), row.getTitle(), null, null, null);
+        response.setPublishAt(row.getPublishAt());
+        response.setUnpublishAt(row.getUnpublishAt());
+        response.setVisible(visible);
+        return response;
+    }
+    
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,132 @@
+package com.whitefallen.cms.publishing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} buckets of one tick each, and
+ * every level above has the same number of buckets, each spanning a full rotation of the
+ * level below. A timer goes into the lowest level whose range covers its deadline, so
+ * adding one costs O(levels) regardless of how many are pending. When a higher-level
+ * bucket comes due its timers cascade down to finer levels.
+ *
+ * Timers fire once the whole tick containing their deadline has elapsed: never early,
+ * at most one tick late. Not thread-safe.
+ */
+public class TimingWheel<T> {
+    
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<Timer<T>>[]> levels = new ArrayList<>();
+    
+    // Start of the current tick; every timer with an earlier deadline has fired
+    private long currentTime;
+    private int size;
+    
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+    
+    /**
+     * Schedules {@code value} for {@code deadlineMillis}. Deadlines already passed fire on
+     * the next {@link #advance}.
+     */
+    public void add(long deadlineMillis, T value) {
+        insert(new Timer<>(Math.max(deadlineMillis, currentTime), value));
+        size++;
+    }
+    
+    /**
+     * Moves the wheel forward to {@code nowMillis}, passing every timer that came due to
+     * {@code expired} in deadline order by tick.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        if (size == 0) {
+            // Nothing to fire or cascade, so skip the idle ticks in one step
+            currentTime = Math.max(currentTime, nowMillis - Math.floorMod(nowMillis, tickMillis));
+            return;
+        }
+        while (currentTime + tickMillis <= nowMillis) {
+            for (Timer<T> timer : take(0, tickMillis, currentTime)) {
+                size--;
+                expired.accept(timer.value);
+            }
+            currentTime += tickMillis;
+            cascade();
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private void cascade() {
+        // Find the highest level whose bucket boundary was just crossed, then work
+        // downwards so timers cascading from a high level can cascade again right away
+        int top = 0;
+        long span = tickMillis;
+        while (top + 1 < levels.size() && currentTime % (span * wheelSize) == 0) {
+            top++;
+            span *= wheelSize;
+        }
+        for (int level = top; level >= 1; level--) {
+            for (Timer<T> timer : take(level, span, currentTime)) {
+                insert(timer);
+            }
+            span /= wheelSize;
+        }
+    }
+    
+    private void insert(Timer<T> timer) {
+        int level = 0;
+        long span = tickMillis;
+        while (timer.deadline / span - currentTime / span >= wheelSize) {
+            level++;
+            span *= wheelSize;
+        }
+        bucket(level, span, timer.deadline).add(timer);
+    }
+    
+    private List<Timer<T>> take(int level, long span, long time) {
+        if (level >= levels.size()) {
+            return List.of();
+        }
+        int index = (int) Math.floorMod(time / span, (long) wheelSize);
+        List<Timer<T>> timers = levels.get(level)[index];
+        if (timers == null || timers.isEmpty()) {
+            return List.of();
+        }
+        levels.get(level)[index] = null;
+        return timers;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<Timer<T>> bucket(int level, long span, long deadline) {
+        while (levels.size() <= level) {
+            levels.add(new List[wheelSize]);
+        }
+        List<Timer<T>>[] buckets = levels.get(level);
+        int index = (int) Math.floorMod(deadline / span, (long) wheelSize);
+        if (buckets[index] == null) {
+            buckets[index] = new ArrayList<>();
+        }
+        return buckets[index];
+    }
+    
+    private static final class Timer<T> {
+        
+        private final long deadline;
+        private final T value;
+        
+        private Timer(long deadline, T value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+    }
+}
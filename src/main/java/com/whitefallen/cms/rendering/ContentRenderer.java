@@ -0,0 +1,145 @@
+package com.whitefallen.cms.rendering;
+
+import com.whitefallen.cms.model.ContentRendition;
+import org.commonmark.node.*;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.regex.Pattern;
+
+/**
+ * Renders a Markdown body (CommonMark) into its derived forms: HTML, a plain-text
+ * excerpt and a word count. Bodies are untrusted, so the HTML is sanitized while it
+ * is produced: raw HTML in the body is escaped rather than passed through, link and
+ * image URLs with unsafe schemes such as {@code javascript:} are dropped, and links
+ * carry {@code rel="nofollow noopener"}.
+ */
+@Component
+public class ContentRenderer {
+    
+    // Bump whenever the output changes, so that stored renditions are rendered again
+    public static final int VERSION = 1;
+    
+    static final int EXCERPT_LENGTH = 280;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private final Parser parser = Parser.builder().build();
+    private final HtmlRenderer htmlRenderer = HtmlRenderer.builder()
+        .escapeHtml(true)
+        .sanitizeUrls(true)
+        .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+            if (node instanceof Link) {
+                attributes.put("rel", "nofollow noopener");
+            }
+        })
+        .build();
+    
+    public ContentRendition render(Long contentId, String bodyHash, String body) {
+        Node document = parser.parse(body);
+        PlainTextCollector collector = new PlainTextCollector();
+        document.accept(collector);
+        String text = collector.text();
+        
+        ContentRendition rendition = new ContentRendition(contentId);
+        rendition.setBodyHash(bodyHash);
+        rendition.setRendererVersion(VERSION);
+        rendition.setHtml(htmlRenderer.render(document));
+        rendition.setExcerpt(excerptOf(text));
+        rendition.setWordCount(wordCountOf(text));
+        rendition.setRenderedAt(LocalDateTime.now());
+        return rendition;
+    }
+    
+    // Cut at the last word boundary within the limit
+    static String excerptOf(String text) {
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        if (cut <= 0) {
+            cut = Character.isHighSurrogate(text.charAt(EXCERPT_LENGTH - 1)) ? EXCERPT_LENGTH - 1 : EXCERPT_LENGTH;
+        }
+        return text.substring(0, cut) + "…";
+    }
+    
+    // The text is whitespace-normalized, so words are separated by exactly one space
+    static int wordCountOf(String text) {
+        if (text.isEmpty()) {
+            return 0;
+        }
+        int words = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ' ') {
+                words++;
+            }
+        }
+        return words;
+    }
+    
+    /**
+     * Collects the readable text of a document, with blocks and line breaks turned into
+     * spaces. Raw HTML is markup, not text, and is left out.
+     */
+    private static class PlainTextCollector extends AbstractVisitor {
+        
+        private final StringBuilder text = new StringBuilder();
+        
+        @Override
+        public void visit(Text node) {
+            text.append(node.getLiteral());
+        }
+        
+        @Override
+        public void visit(Code node) {
+            text.append(node.getLiteral());
+        }
+        
+        @Override
+        public void visit(FencedCodeBlock node) {
+            text.append(' ').append(node.getLiteral()).append(' ');
+        }
+        
+        @Override
+        public void visit(IndentedCodeBlock node) {
+            text.append(' ').append(node.getLiteral()).append(' ');
+        }
+        
+        @Override
+        public void visit(Paragraph node) {
+            text.append(' ');
+            visitChildren(node);
+            text.append(' ');
+        }
+        
+        @Override
+        public void visit(Heading node) {
+            text.append(' ');
+            visitChildren(node);
+            text.append(' ');
+        }
+        
+        @Override
+        public void visit(SoftLineBreak node) {
+            text.append(' ');
+        }
+        
+        @Override
+        public void visit(HardLineBreak node) {
+            text.append(' ');
+        }
+        
+        @Override
+        public void visit(HtmlInline node) {
+        }
+        
+        @Override
+        public void visit(HtmlBlock node) {
+        }
+        
+        String text() {
+            return WHITESPACE.matcher(text).replaceAll(" ").trim();
+        }
+    }
+}
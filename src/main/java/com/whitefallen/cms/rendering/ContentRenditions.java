@@ -0,0 +1,363 @@
+package com.whitefallen.cms.rendering;
+
+import com.whitefallen.cms.config.RenderingProperties;
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.model.ContentBody;
+import com.whitefallen.cms.model.ContentRendition;
+import com.whitefallen.cms.repository.ContentHashView;
+import com.whitefallen.cms.repository.ContentReadView;
+import com.whitefallen.cms.repository.ContentRenditionRepository;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.repository.StoredBodyView;
+import com.whitefallen.cms.service.ContentChangedEvent;
+import com.whitefallen.cms.tiering.ContentTiering;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps rendered forms of content bodies in {@code content_rendition}, so that the
+ * rendering cost is paid once per write instead of once per read. Every committed
+ * write that changes a body queues a render on a small bounded pool; the request
+ * that made the write does not wait for it.
+ *
+ * A read finds the rendition missing or stale when its render has not finished yet,
+ * was dropped because the queue was full or the application stopped, or came from an
+ * older {@link ContentRenderer#VERSION}. The read renders up to
+ * {@code cms.rendering.max-renders-per-read} of those itself, reading their bodies in
+ * one query, and queues the rest, which it returns marked as pending. A backfill run
+ * at startup and every {@code cms.rendering.backfill-interval} queues the stale rows
+ * that nobody reads, so that a version bump does not land on the first list reads.
+ */
+@Component
+public class ContentRenditions {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContentRenditions.class);
+    
+    private final ContentRenditionRepository renditionRepository;
+    private final ContentRepository contentRepository;
+    private final ContentRenderer renderer;
+    private final ContentTiering tiering;
+    private final TransactionTemplate transactionTemplate;
+    private final RenderingProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+    // Rows with a queued render, so that reads and the backfill do not queue them twice
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final Counter renderedOnWrite;
+    private final Counter renderedOnRead;
+    private final Counter renderedInBackground;
+    private final Counter rejected;
+    
+    public ContentRenditions(ContentRenditionRepository renditionRepository,
+                             ContentRepository contentRepository,
+                             ContentRenderer renderer,
+                             ContentTiering tiering,
+                             TransactionTemplate transactionTemplate,
+                             RenderingProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.renditionRepository = renditionRepository;
+        this.contentRepository = contentRepository;
+        this.renderer = renderer;
+        this.tiering = tiering;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.renderedOnWrite = Counter.builder("cms.rendering.rendered")
+            .tag("trigger", "write")
+            .description("Bodies rendered after a write")
+            .register(meterRegistry);
+        this.renderedOnRead = Counter.builder("cms.rendering.rendered")
+            .tag("trigger", "read")
+            .description("Bodies rendered by a read that found no current rendition")
+            .register(meterRegistry);
+        this.renderedInBackground = Counter.builder("cms.rendering.rendered")
+            .tag("trigger", "background")
+            .description("Bodies rendered after a read deferred them or the backfill found them stale")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("cms.rendering.rejected")
+            .description("Renders dropped because the queue was full")
+            .register(meterRegistry);
+        
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("content-render-");
+        // Dropping is safe: a later read or backfill run renders what the pool did not get to
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            if (task instanceof QueuedRender render) {
+                queued.remove(render.id);
+            }
+            rejected.increment();
+        });
+        executor.initialize();
+        Gauge.builder("cms.rendering.queued", executor, pool -> pool.getThreadPoolExecutor().getQueue().size())
+            .description("Renders waiting for a worker")
+            .register(meterRegistry);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        ContentResponse current = event.getCurrent();
+        if (current == null || current.getBody() == null || !bodyChanged(event.getPrevious(), current)) {
+            return;
+        }
+        Long id = current.getId();
+        String hash = hashOf(current);
+        String body = current.getBody();
+        executor.execute(() -> renderOnWrite(id, hash, body));
+    }
+    
+    public ContentResponse present(ContentResponse content, ContentView view) {
+        return present(List.of(content), view).get(0);
+    }
+    
+    /**
+     * Returns copies of the given content in the requested view, in the same order.
+     * The raw view returns the list unchanged. The content may come without its body;
+     * the bodies of missing renditions are then read here.
+     */
+    public List<ContentResponse> present(List<ContentResponse> contents, ContentView view) {
+        if (view == ContentView.RAW || contents.isEmpty()) {
+            return contents;
+        }
+        Map<Long, ContentRendition> current = currentRenditions(contents.stream()
+            .map(content -> new Source(content.getId(), content.getBodyHash(), content.getBody()))
+            .toList());
+        List<ContentResponse> presented = new ArrayList<>(contents.size());
+        for (ContentResponse content : contents) {
+            presented.add(inView(content, current.get(content.getId()), view));
+        }
+        return presented;
+    }
+    
+    /**
+     * Returns the current renditions of the given rows by content id, rendering missing
+     * or stale ones like {@link #present(List, ContentView)} does. Rows whose render was
+     * queued instead have no entry.
+     */
+    public Map<Long, ContentRendition> renditionsOf(List<ContentReadView> rows) {
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+        return currentRenditions(rows.stream()
+            .map(row -> new Source(row.getId(), row.getBodyHash(), row.getBody()))
+            .toList());
+    }
+    
+    /**
+     * Queues renders for live rows whose rendition is missing or stale, as many as
+     * {@code cms.rendering.backfill-batch-size} and the free queue capacity allow.
+     * Returns the number of rows queued.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cms.rendering.backfill-interval:PT1M}",
+               initialDelayString = "${cms.rendering.backfill-interval:PT1M}")
+    public int backfill() {
+        int capacity = executor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        int limit = Math.min(properties.getBackfillBatchSize(), capacity);
+        if (limit <= 0) {
+            return 0;
+        }
+        int count = 0;
+        for (ContentHashView stale : renditionRepository.findStale(ContentRenderer.VERSION, limit)) {
+            if (renderLater(stale.getId(), stale.getBodyHash())) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            log.info("Queued {} content rows with a missing or stale rendition", count);
+        }
+        return count;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // Queued renders are dropped; the next backfill run finds their rows again
+        executor.shutdown();
+    }
+    
+    private Map<Long, ContentRendition> currentRenditions(List<Source> sources) {
+        List<Long> ids = sources.stream().map(Source::id).toList();
+        Map<Long, ContentRendition> current = new HashMap<>();
+        for (ContentRendition rendition : renditionRepository.findAllById(ids)) {
+            current.put(rendition.getContentId(), rendition);
+        }
+        List<Source> misses = new ArrayList<>();
+        for (Source source : sources) {
+            if (!isCurrent(current.get(source.id()), source.hash())) {
+                misses.add(source);
+            }
+        }
+        int renderNow = Math.min(misses.size(), properties.getMaxRendersPerRead());
+        if (renderNow > 0) {
+            List<ContentRendition> rendered = render(misses.subList(0, renderNow));
+            renderedOnRead.increment(rendered.size());
+            store(rendered);
+            for (ContentRendition rendition : rendered) {
+                current.put(rendition.getContentId(), rendition);
+            }
+        }
+        for (Source source : misses.subList(renderNow, misses.size())) {
+            current.remove(source.id());
+            renderLater(source.id(), source.hash());
+        }
+        return current;
+    }
+    
+    private void renderOnWrite(Long id, String hash, String body) {
+        try {
+            store(List.of(renderer.render(id, hash, body)));
+            renderedOnWrite.increment();
+        } catch (RuntimeException ex) {
+            log.warn("Could not render content {}; it will be rendered on its next read", id, ex);
+        }
+    }
+    
+    // Returns false if the row already has a render queued
+    private boolean renderLater(Long id, String hash) {
+        if (!queued.add(id)) {
+            return false;
+        }
+        executor.execute(new QueuedRender(id, hash));
+        return true;
+    }
+    
+    private void renderQueued(Long id, String hash) {
+        try {
+            StoredBodyView stored = contentRepository.findStoredBodies(List.of(id)).stream().findFirst().orElse(null);
+            store(List.of(render(id, hash, null, stored)));
+            renderedInBackground.increment();
+        } catch (RuntimeException ex) {
+            log.warn("Could not render content {}; it will be rendered on its next read", id, ex);
+        } finally {
+            queued.remove(id);
+        }
+    }
+    
+    // Bodies that were not loaded with the content are read in one query, or from the archive
+    private List<ContentRendition> render(List<Source> sources) {
+        List<Long> unloaded = sources.stream()
+            .filter(source -> source.body() == null)
+            .map(Source::id)
+            .toList();
+        Map<Long, StoredBodyView> stored = new HashMap<>();
+        if (!unloaded.isEmpty()) {
+            for (StoredBodyView body : contentRepository.findStoredBodies(unloaded)) {
+                stored.put(body.getId(), body);
+            }
+        }
+        List<ContentRendition> rendered = new ArrayList<>(sources.size());
+        for (Source source : sources) {
+            rendered.add(render(source.id(), source.hash(), source.body(), stored.get(source.id())));
+        }
+        return rendered;
+    }
+    
+    private ContentRendition render(Long id, String hash, String body, StoredBodyView stored) {
+        if (body == null && stored != null) {
+            // Read after the content; the row may have changed in between, and this is its newer body
+            hash = stored.getHash();
+            body = stored.getBody();
+        } else if (body == null) {
+            body = tiering.archivedBody(id);
+        }
+        return renderer.render(id, hash != null ? hash : ContentBody.hashOf(body), body);
+    }
+    
+    private void store(List<ContentRendition> renditions) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ContentRendition rendition : renditions) {
+                    // A later write may have committed meanwhile; its own render stores the newer body
+                    if (contentRepository.hasCurrentBody(rendition.getContentId(), rendition.getBodyHash())) {
+                        renditionRepository.save(rendition);
+                    }
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another thread stored the first rendition of one of these rows at the same time
+            log.debug("Renditions of content {} were stored concurrently",
+                renditions.stream().map(ContentRendition::getContentId).toList());
+        }
+    }
+    
+    private static boolean isCurrent(ContentRendition rendition, String hash) {
+        return rendition != null && hash != null && rendition.isCurrentFor(hash, ContentRenderer.VERSION);
+    }
+    
+    private static boolean bodyChanged(ContentResponse previous, ContentResponse current) {
+        if (previous == null || previous.getBody() == null) {
+            return true;
+        }
+        return !hashOf(previous).equals(hashOf(current));
+    }
+    
+    private static String hashOf(ContentResponse content) {
+        return content.getBodyHash() != null ? content.getBodyHash() : ContentBody.hashOf(content.getBody());
+    }
+    
+    private static ContentResponse inView(ContentResponse content, ContentRendition rendition, ContentView view) {
+        ContentResponse response = new ContentResponse(
+            content.getId(),
+            content.getTitle(),
+            null,
+            content.getCreatedAt(),
+            content.getUpdatedAt()
+        );
+        response.setPublishAt(content.getPublishAt());
+        response.setUnpublishAt(content.getUnpublishAt());
+        response.setVisible(content.isVisible());
+        if (rendition == null) {
+            response.setBodyHash(content.getBodyHash());
+            response.setRenderPending(true);
+            return response;
+        }
+        response.setBodyHash(rendition.getBodyHash());
+        response.setWordCount(rendition.getWordCount());
+        if (view == ContentView.HTML) {
+            response.setHtml(rendition.getHtml());
+        } else {
+            response.setExcerpt(rendition.getExcerpt());
+        }
+        return response;
+    }
+    
+    // What a rendition is made from; the body is null when it was not loaded with the row
+    private record Source(Long id, String hash, String body) {
+    }
+    
+    // A render a read deferred or the backfill queued; the body is read by the worker
+    private final class QueuedRender implements Runnable {
+        
+        private final Long id;
+        private final String hash;
+        
+        QueuedRender(Long id, String hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+        
+        @Override
+        public void run() {
+            renderQueued(id, hash);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.whitefallen.cms.rendering;
+
+import com.whitefallen.cms.service.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * The form in which GET endpoints return content, chosen with the {@code view} parameter.
+ */
+public enum ContentView {
+    
+    // The body as stored, in Markdown
+    RAW,
+    
+    // Sanitized HTML and word count instead of the body
+    HTML,
+    
+    // Plain-text excerpt and word count instead of the body, for listings
+    SUMMARY;
+    
+    public static ContentView fromParameter(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Unknown view '" + value + "'; expected raw, html or summary");
+        }
+    }
+}
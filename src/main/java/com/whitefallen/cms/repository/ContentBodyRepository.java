@@ -0,0 +1,35 @@
+package com.whitefallen.cms.repository;
+
+import com.whitefallen.cms.model.ContentBody;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContentBodyRepository extends JpaRepository<ContentBody, String> {
+    
+    // Returns 0 when no body with this hash is stored yet
+    @Modifying
+    @Query("update ContentBody b set b.refCount = b.refCount + 1 where b.hash = :hash")
+    int incrementRefCount(@Param("hash") String hash);
+    
+    @Modifying
+    @Query("update ContentBody b set b.refCount = b.refCount - 1 where b.hash = :hash")
+    int decrementRefCount(@Param("hash") String hash);
+    
+    // Drops the references held by the given content rows, ahead of hard-deleting them
+    @Modifying
+    @Query(value = "UPDATE content_body b SET ref_count = ref_count - "
+                 + "(SELECT COUNT(*) FROM content c WHERE c.body_hash = b.hash AND c.id IN (:ids)) "
+                 + "WHERE b.hash IN (SELECT c.body_hash FROM content c WHERE c.id IN (:ids))",
+           nativeQuery = true)
+    int releaseReferencesOf(@Param("ids") List<Long> contentIds);
+    
+    @Modifying
+    @Query("delete from ContentBody b where b.refCount <= 0")
+    int deleteUnreferenced();
+}
@@ -0,0 +1,9 @@
+package com.whitefallen.cms.repository;
+
+// Projection of a content row's current body hash, from either tier
+public interface ContentHashView {
+    
+    Long getId();
+    
+    String getBodyHash();
+}
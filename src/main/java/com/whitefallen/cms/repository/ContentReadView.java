@@ -0,0 +1,94 @@
+package com.whitefallen.cms.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a content row for the public read paths. Instantiated by a JPQL
+ * constructor expression, so rows are loaded without entities and without the proxy
+ * that Spring Data puts behind interface projections. The list endpoints write these
+ * rows to the response as they are, with no response object per row.
+ */
+public class ContentReadView {
+    
+    private final Long id;
+    private final String title;
+    private final String body;
+    private final String bodyHash;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final LocalDateTime publishAt;
+    private final LocalDateTime unpublishAt;
+    private final boolean visible;
+    private final boolean archived;
+    
+    public ContentReadView(Long id, String title, String body, String bodyHash,
+                           LocalDateTime createdAt, LocalDateTime updatedAt,
+                           LocalDateTime publishAt, LocalDateTime unpublishAt,
+                           boolean visible, boolean archived) {
+        this.id = id;
+        this.title = title;
+        this.body = body;
+        this.bodyHash = bodyHash;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.publishAt = publishAt;
+        this.unpublishAt = unpublishAt;
+        this.visible = visible;
+        this.archived = archived;
+    }
+    
+    public ContentReadView(Long id, String title, String bodyHash,
+                           LocalDateTime createdAt, LocalDateTime updatedAt,
+                           LocalDateTime publishAt, LocalDateTime unpublishAt,
+                           boolean visible, boolean archived) {
+        this(id, title, null, bodyHash, createdAt, updatedAt, publishAt, unpublishAt, visible, archived);
+    }
+    
+    // A copy carrying the given body, e.g. one read from the archive
+    public ContentReadView withBody(String body) {
+        return new ContentReadView(id, title, body, bodyHash, createdAt, updatedAt, publishAt, unpublishAt,
+            visible, archived);
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    // Null for archived rows, whose body is read from the archive, and for bodiless reads
+    public String getBody() {
+        return body;
+    }
+    
+    public String getBodyHash() {
+        return bodyHash;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public LocalDateTime getPublishAt() {
+        return publishAt;
+    }
+    
+    public LocalDateTime getUnpublishAt() {
+        return unpublishAt;
+    }
+    
+    public boolean isVisible() {
+        return visible;
+    }
+    
+    public boolean isArchived() {
+        return archived;
+    }
+}
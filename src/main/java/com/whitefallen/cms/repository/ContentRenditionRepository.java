@@ -0,0 +1,27 @@
+package com.whitefallen.cms.repository;
+
+import com.whitefallen.cms.model.ContentRendition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContentRenditionRepository extends JpaRepository<ContentRendition, Long> {
+    
+    // Drops the renditions of content rows that are being hard-deleted
+    @Modifying
+    @Query("delete from ContentRendition r where r.contentId in :ids")
+    int deleteByContentIds(@Param("ids") List<Long> contentIds);
+    
+    // Live rows whose rendition is missing, or was made from another body or renderer version
+    @Query(value = "SELECT c.id AS id, COALESCE(c.body_hash, c.archived_body_hash) AS bodyHash FROM content c "
+                 + "LEFT JOIN content_rendition r ON r.content_id = c.id "
+                 + "WHERE c.deleted = FALSE AND (r.content_id IS NULL OR r.renderer_version <> :version "
+                 + "OR r.body_hash <> COALESCE(c.body_hash, c.archived_body_hash)) ORDER BY c.id LIMIT :limit",
+           nativeQuery = true)
+    List<ContentHashView> findStale(@Param("version") int rendererVersion, @Param("limit") int limit);
+}
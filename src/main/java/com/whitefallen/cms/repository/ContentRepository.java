@@ -1,13 +1,192 @@
 package com.whitefallen.cms.repository;
 
 import com.whitefallen.cms.model.Content;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ContentRepository extends JpaRepository<Content, Long> {
     
-    List<Content> findByTitleContainingIgnoreCase(String title);
+    String READ_VIEW = "select new com.whitefallen.cms.repository.ContentReadView(c.id, c.title, b.body, "
+        + "coalesce(b.hash, c.archivedBodyHash), c.createdAt, c.updatedAt, c.publishAt, c.unpublishAt, "
+        + "c.visible, c.archived) from Content c left join c.bodyBlob b ";
+    
+    // The same without the body; the hash is the foreign key, so content_body is not joined
+    String METADATA_VIEW = "select new com.whitefallen.cms.repository.ContentReadView(c.id, c.title, "
+        + "coalesce(c.bodyBlob.hash, c.archivedBodyHash), c.createdAt, c.updatedAt, c.publishAt, c.unpublishAt, "
+        + "c.visible, c.archived) from Content c ";
+    
+    // Entity finders fetch the shared body in the same query to avoid one extra select per row
+    @Override
+    @EntityGraph(attributePaths = "bodyBlob")
+    Optional<Content> findById(Long id);
+    
+    @Override
+    @EntityGraph(attributePaths = "bodyBlob")
+    List<Content> findAll();
+    
+    @Override
+    @EntityGraph(attributePaths = "bodyBlob")
+    List<Content> findAllById(Iterable<Long> ids);
+    
+    // Public read paths: flat projections of content whose embargo window is open, with no
+    // entities in the persistence context. The entity finders above also return embargoed
+    // rows and are meant for writes and background jobs.
+    @Query(READ_VIEW + "where c.id = :id and c.visible = true")
+    Optional<ContentReadView> findVisibleById(@Param("id") Long id);
+    
+    @Query(READ_VIEW + "where c.visible = true order by c.id")
+    List<ContentReadView> findAllVisible();
+    
+    @Query(READ_VIEW + "where c.id in :ids and c.visible = true")
+    List<ContentReadView> findVisibleByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Case-insensitive substring match; wildcards in the search text are matched literally
+    @Query(READ_VIEW + "where c.visible = true and upper(c.title) like upper(?#{'%' + escape([0]) + '%'}) "
+         + "escape ?#{escapeCharacter()} order by c.id")
+    List<ContentReadView> searchVisibleByTitle(String title);
+    
+    // Bodiless variants for the rendered views, which take the body from content_rendition
+    @Query(METADATA_VIEW + "where c.id = :id and c.visible = true")
+    Optional<ContentReadView> findVisibleMetadataById(@Param("id") Long id);
+    
+    @Query(METADATA_VIEW + "where c.visible = true order by c.id")
+    List<ContentReadView> findAllVisibleMetadata();
+    
+    @Query(METADATA_VIEW + "where c.id in :ids and c.visible = true")
+    List<ContentReadView> findVisibleMetadataByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(METADATA_VIEW + "where c.visible = true and upper(c.title) like upper(?#{'%' + escape([0]) + '%'}) "
+         + "escape ?#{escapeCharacter()} order by c.id")
+    List<ContentReadView> searchVisibleMetadataByTitle(String title);
+    
+    // Edits lock the row, so that they and the archiver, which locks its candidates, take
+    // turns instead of one overwriting the other's body_hash and archived columns. The body
+    // stays a lazy reference until the edit reads it.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Content c where c.id = :id")
+    Optional<Content> findForEditById(@Param("id") Long id);
+    
+    @Query("select c.id as id, c.title as title from Content c where c.visible = true")
+    List<ContentTitleView> findAllTitles();
+    
+    // Flip the materialized flag without touching updatedAt. Each checks the stored window itself,
+    // so an edit that committed after the caller read the row is never overwritten.
+    @Modifying
+    @Query("update Content c set c.visible = true where c.id in :ids and c.visible = false "
+         + "and (c.publishAt is null or c.publishAt <= :now) and (c.unpublishAt is null or c.unpublishAt > :now)")
+    int showIfWindowOpen(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("update Content c set c.visible = false where c.id in :ids and c.visible = true "
+         + "and (c.publishAt > :now or c.unpublishAt <= :now)")
+    int hideIfWindowClosed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Rows with a publish or unpublish time still ahead of now; loaded into the scheduler at startup
+    @Query("select c.id as id, c.title as title, c.publishAt as publishAt, c.unpublishAt as unpublishAt, "
+         + "c.visible as visible from Content c where c.publishAt > :now or c.unpublishAt > :now")
+    List<PublicationView> findPendingPublications(@Param("now") LocalDateTime now);
+    
+    // Locked, so that an edit of the window waits until the scheduler has flipped the row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.id as id, c.title as title, c.publishAt as publishAt, c.unpublishAt as unpublishAt, "
+         + "c.visible as visible from Content c where c.id in :ids")
+    List<PublicationView> findPublicationsForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // Rows whose flag disagrees with their window, e.g. because a time passed while the application was down
+    @Query("select c.id from Content c where "
+         + "(c.visible = false and (c.publishAt is null or c.publishAt <= :now) "
+         + "and (c.unpublishAt is null or c.unpublishAt > :now)) "
+         + "or (c.visible = true and (c.publishAt > :now or c.unpublishAt <= :now))")
+    List<Long> findIdsWithStaleVisibility(@Param("now") LocalDateTime now);
+    
+    // Aggregates used to reconcile the in-memory statistics
+    @Query("select cast(c.createdAt as LocalDate) as day, count(c) as count from Content c "
+         + "group by cast(c.createdAt as LocalDate)")
+    List<DailyCountView> countCreatedPerDay();
+    
+    @Query("select cast(c.updatedAt as LocalDate) as day, count(c) as count from Content c "
+         + "group by cast(c.updatedAt as LocalDate)")
+    List<DailyCountView> countUpdatedPerDay();
+    
+    @Query("select length(c.title) as length, count(c) as count from Content c group by length(c.title)")
+    List<LengthCountView> countByTitleLength();
+    
+    @Query("select length(b.body) as length, count(c) as count from Content c join c.bodyBlob b "
+         + "group by length(b.body)")
+    List<LengthCountView> countByBodyLength();
+    
+    // Archived rows have no body row; their length is kept on the row itself
+    @Query("select c.archivedBodyLength as length, count(c) as count from Content c where c.archived = true "
+         + "group by c.archivedBodyLength")
+    List<LengthCountView> countByArchivedBodyLength();
+    
+    // Bulk, so that reads do not bump updatedAt
+    @Modifying
+    @Query("update Content c set c.lastAccessedAt = :accessedAt where c.id in :ids")
+    int markAccessed(@Param("ids") Collection<Long> ids, @Param("accessedAt") LocalDateTime accessedAt);
+    
+    // Locked so that a concurrent edit waits instead of being archived with its old body
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = "bodyBlob")
+    @Query("select c from Content c where c.archived = false and c.bodyBlob is not null "
+         + "and c.updatedAt < :cutoff and (c.lastAccessedAt is null or c.lastAccessedAt < :cutoff) "
+         + "order by c.updatedAt")
+    List<Content> findArchiveCandidates(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+    
+    // Call after releasing the body reference, which is found through body_hash
+    @Modifying
+    @Query("update Content c set c.archived = true, c.archivedBodyLength = :bodyLength, "
+         + "c.archivedBodyHash = :bodyHash, c.bodyBlob = null where c.id = :id and c.archived = false")
+    int markArchived(@Param("id") Long id, @Param("bodyLength") int bodyLength, @Param("bodyHash") String bodyHash);
+    
+    // Native, so that Hibernate flushes a newly stored body before the row points at it
+    @Modifying
+    @Query(value = "UPDATE content SET body_hash = :hash, archived = FALSE, archived_body_length = NULL, "
+                 + "archived_body_hash = NULL, last_accessed_at = :accessedAt WHERE id = :id AND archived = TRUE",
+           nativeQuery = true)
+    int restoreArchived(@Param("id") Long id, @Param("hash") String bodyHash,
+                        @Param("accessedAt") LocalDateTime accessedAt);
+    
+    // Reads the committed hot-tier body, bypassing entities that may predate a promotion
+    @Query(value = "SELECT b.body FROM content c JOIN content_body b ON b.hash = c.body_hash WHERE c.id = :id",
+           nativeQuery = true)
+    Optional<String> findStoredBody(@Param("id") Long id);
+    
+    // The same for several rows at once; archived rows are left out
+    @Query(value = "SELECT c.id AS id, b.hash AS hash, b.body AS body FROM content c JOIN content_body b ON b.hash = c.body_hash "
+                 + "WHERE c.id IN (:ids)",
+           nativeQuery = true)
+    List<StoredBodyView> findStoredBodies(@Param("ids") Collection<Long> ids);
+    
+    // True while the row still has this body, in either tier
+    @Query("select count(c) > 0 from Content c "
+         + "where c.id = :id and coalesce(c.bodyBlob.hash, c.archivedBodyHash) = :hash")
+    boolean hasCurrentBody(@Param("id") Long id, @Param("hash") String bodyHash);
+    
+    // Marks the row as deleted in a single statement; returns 0 if it was missing or already deleted
+    @Modifying
+    @Query("update Content c set c.deleted = true, c.deletedAt = :deletedAt where c.id = :id and c.deleted = false")
+    int softDeleteById(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    // Native so that the soft-delete restriction on the entity does not hide the tombstones
+    @Query(value = "SELECT id FROM content WHERE deleted = TRUE AND deleted_at < :cutoff ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findPurgeableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+    
+    @Modifying
+    @Query(value = "DELETE FROM content WHERE deleted = TRUE AND id IN (:ids)", nativeQuery = true)
+    int purgeByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,9 @@
+package com.whitefallen.cms.repository;
+
+// Projection used to load titles without fetching bodies
+public interface ContentTitleView {
+    
+    Long getId();
+    
+    String getTitle();
+}
@@ -0,0 +1,11 @@
+package com.whitefallen.cms.repository;
+
+import java.time.LocalDate;
+
+// Projection for per-day row counts
+public interface DailyCountView {
+    
+    LocalDate getDay();
+    
+    long getCount();
+}
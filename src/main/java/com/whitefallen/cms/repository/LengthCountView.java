@@ -0,0 +1,9 @@
+package com.whitefallen.cms.repository;
+
+// Projection for the number of rows with a given text length
+public interface LengthCountView {
+    
+    int getLength();
+    
+    long getCount();
+}
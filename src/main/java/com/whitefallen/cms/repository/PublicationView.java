@@ -0,0 +1,17 @@
+package com.whitefallen.cms.repository;
+
+import java.time.LocalDateTime;
+
+// Projection of the embargo window used by the publication scheduler
+public interface PublicationView {
+    
+    Long getId();
+    
+    String getTitle();
+    
+    LocalDateTime getPublishAt();
+    
+    LocalDateTime getUnpublishAt();
+    
+    boolean isVisible();
+}
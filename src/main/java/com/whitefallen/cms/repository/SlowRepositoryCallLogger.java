@@ -0,0 +1,38 @@
+package com.whitefallen.cms.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs repository calls that take at least {@code cms.persistence.slow-query-threshold},
+ * naming the repository method rather than the generated SQL. Registered on every
+ * repository by {@code PersistenceConfig}. Timings of all calls are published by Spring
+ * Boot as the {@code spring.data.repository.invocations} metric.
+ */
+public class SlowRepositoryCallLogger implements RepositoryMethodInvocationListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(SlowRepositoryCallLogger.class);
+    
+    private final long thresholdNanos;
+    
+    public SlowRepositoryCallLogger(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+    
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        long nanos = invocation.getDuration(TimeUnit.NANOSECONDS);
+        if (nanos >= thresholdNanos) {
+            RepositoryMethodInvocationResult result = invocation.getResult();
+            log.warn("Slow repository call {}.{} took {} ms ({})",
+                invocation.getRepositoryInterface().getSimpleName(),
+                invocation.getMethod().getName(),
+                TimeUnit.NANOSECONDS.toMillis(nanos),
+                result == null ? "UNKNOWN" : result.getState());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.whitefallen.cms.repository;
+
+// Projection of a hot-tier body keyed by the content row that points at it
+public interface StoredBodyView {
+    
+    Long getId();
+    
+    String getHash();
+    
+    String getBody();
+}
@@ -0,0 +1,183 @@
+package com.whitefallen.cms.search;
+
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.dto.TitleSuggestion;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.repository.ContentTitleView;
+import com.whitefallen.cms.service.ContentChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over content titles. Titles are split into lower-cased
+ * word tokens held in a {@link TitleTrie}, so lookups never touch the database.
+ * The index is built when the application starts and kept in sync with committed
+ * writes through {@link ContentChangedEvent}.
+ */
+@Component
+public class TitleIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(TitleIndex.class);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    
+    private final ContentRepository contentRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> titles = new HashMap<>();
+    private TitleTrie trie = new TitleTrie();
+    
+    public TitleIndex(ContentRepository contentRepository) {
+        this.contentRepository = contentRepository;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            trie = new TitleTrie();
+            titles.clear();
+            List<ContentTitleView> all = contentRepository.findAllTitles();
+            for (ContentTitleView view : all) {
+                addLocked(view.getId(), view.getTitle());
+            }
+            log.info("Title index built with {} entries", all.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        ContentResponse current = event.getCurrent();
+        // Embargoed or expired content must not leak through suggestions
+        if (current == null || !current.isVisible()) {
+            remove(event.getContentId());
+        } else {
+            put(current.getId(), current.getTitle());
+        }
+    }
+    
+    public void put(Long id, String title) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            addLocked(id, title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns titles whose words start with the words of the query. With
+     * {@code maxEdits > 0}, each query word may also be up to that many edits away
+     * from a word prefix. Closer matches rank first, then shorter titles.
+     */
+    public List<TitleSuggestion> suggest(String query, int limit, int maxEdits) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            // With several words, every id must match every word, so nothing can be cut early
+            int perTokenLimit = tokens.size() == 1 ? limit : Integer.MAX_VALUE;
+            Map<Long, Integer> distances = null;
+            for (String token : tokens) {
+                Map<Long, Integer> matches = match(token, maxEdits, perTokenLimit);
+                if (distances == null) {
+                    distances = matches;
+                } else {
+                    distances.keySet().retainAll(matches.keySet());
+                    distances.replaceAll((id, distance) -> distance + matches.get(id));
+                }
+                if (distances.isEmpty()) {
+                    return List.of();
+                }
+            }
+            
+            Map<Long, Integer> ranked = distances;
+            Comparator<Long> order = Comparator.<Long>comparingInt(ranked::get)
+                .thenComparingInt(id -> titles.get(id).length())
+                .thenComparing(titles::get);
+            List<TitleSuggestion> suggestions = new ArrayList<>();
+            ranked.keySet().stream()
+                .sorted(order)
+                .limit(limit)
+                .forEach(id -> suggestions.add(new TitleSuggestion(id, titles.get(id))));
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return titles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private Map<Long, Integer> match(String token, int maxEdits, int limit) {
+        if (maxEdits <= 0) {
+            Map<Long, Integer> exact = new HashMap<>();
+            for (Long id : trie.prefix(token, limit)) {
+                exact.put(id, 0);
+            }
+            return exact;
+        }
+        return trie.fuzzyPrefix(token, maxEdits, limit);
+    }
+    
+    private void addLocked(Long id, String title) {
+        titles.put(id, title);
+        for (String token : tokenize(title)) {
+            trie.add(token, id);
+        }
+    }
+    
+    private void removeLocked(Long id) {
+        String previous = titles.remove(id);
+        if (previous != null) {
+            for (String token : tokenize(previous)) {
+                trie.remove(token, id);
+            }
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+}
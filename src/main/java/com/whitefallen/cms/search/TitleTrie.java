@@ -0,0 +1,155 @@
+package com.whitefallen.cms.search;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Character trie over title tokens, mapping each token to the ids of the titles that
+ * contain it. Supports exact prefix lookup and fuzzy prefix lookup within a bounded
+ * edit distance. Not thread-safe; {@link TitleIndex} guards it with a lock.
+ */
+class TitleTrie {
+    
+    private final Node root = new Node();
+    
+    void add(String token, Long id) {
+        Node node = root;
+        for (int i = 0; i < token.length(); i++) {
+            node = node.children.computeIfAbsent(token.charAt(i), c -> new Node());
+        }
+        node.ids.add(id);
+    }
+    
+    void remove(String token, Long id) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        for (int i = 0; i < token.length(); i++) {
+            path.push(node);
+            node = node.children.get(token.charAt(i));
+            if (node == null) {
+                return;
+            }
+        }
+        node.ids.remove(id);
+        
+        // Prune branches that no longer lead to any token
+        for (int i = token.length() - 1; i >= 0 && node.isEmpty(); i--) {
+            Node parent = path.pop();
+            parent.children.remove(token.charAt(i));
+            node = parent;
+        }
+    }
+    
+    /**
+     * Collects ids of tokens starting with the given prefix, shortest tokens first,
+     * stopping once {@code limit} distinct ids have been found.
+     */
+    Set<Long> prefix(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        Set<Long> result = new HashSet<>();
+        if (node != null) {
+            collect(node, result, limit);
+        }
+        return result;
+    }
+    
+    /**
+     * Collects ids of tokens that start with a string within {@code maxEdits} Levenshtein
+     * edits of the query, keyed by the smallest distance found for each id. The trie is
+     * walked while carrying one row of the edit-distance matrix per node, which simulates
+     * a Levenshtein automaton: branches are pruned as soon as no cell in the row is within
+     * the budget.
+     */
+    Map<Long, Integer> fuzzyPrefix(String query, int maxEdits, int limit) {
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        int[] firstRow = new int[query.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        for (int distance = 0; distance <= maxEdits && result.size() < limit; distance++) {
+            fuzzyWalk(root, firstRow, query, distance, result, limit);
+        }
+        return result;
+    }
+    
+    private void fuzzyWalk(Node node, int[] row, String query, int distance,
+                           Map<Long, Integer> result, int limit) {
+        if (row[query.length()] <= distance) {
+            // The path so far matches the whole query; everything below is a completion
+            Deque<Node> queue = new ArrayDeque<>();
+            queue.add(node);
+            while (!queue.isEmpty() && result.size() < limit) {
+                Node completion = queue.poll();
+                for (Long id : completion.ids) {
+                    if (result.size() >= limit) {
+                        return;
+                    }
+                    result.putIfAbsent(id, distance);
+                }
+                queue.addAll(completion.children.values());
+            }
+            return;
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            if (result.size() >= limit) {
+                return;
+            }
+            int[] next = nextRow(row, query, child.getKey());
+            if (min(next) <= distance) {
+                fuzzyWalk(child.getValue(), next, query, distance, result, limit);
+            }
+        }
+    }
+    
+    private static int[] nextRow(int[] row, String query, char c) {
+        int[] next = new int[row.length];
+        next[0] = row[0] + 1;
+        for (int i = 1; i < row.length; i++) {
+            int substitution = row[i - 1] + (query.charAt(i - 1) == c ? 0 : 1);
+            next[i] = Math.min(substitution, Math.min(row[i] + 1, next[i - 1] + 1));
+        }
+        return next;
+    }
+    
+    private static int min(int[] row) {
+        int min = Integer.MAX_VALUE;
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+    
+    private static void collect(Node start, Set<Long> result, int limit) {
+        // Breadth-first so that shorter completions win when the limit is hit
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty() && result.size() < limit) {
+            Node node = queue.poll();
+            for (Long id : node.ids) {
+                if (result.size() >= limit) {
+                    return;
+                }
+                result.add(id);
+            }
+            queue.addAll(node.children.values());
+        }
+    }
+    
+    private static final class Node {
+        
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final Set<Long> ids = new HashSet<>(2);
+        
+        private boolean isEmpty() {
+            return children.isEmpty() && ids.isEmpty();
+        }
+    }
+}
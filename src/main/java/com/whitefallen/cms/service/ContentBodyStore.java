@@ -0,0 +1,80 @@
+package com.whitefallen.cms.service;
+
+import com.whitefallen.cms.model.ContentBody;
+import com.whitefallen.cms.repository.ContentBodyRepository;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * Content-addressed storage for bodies. Identical texts share one {@link ContentBody}
+ * row; callers take a reference when a content row starts pointing at a body and give
+ * it back when the row stops pointing at it. Bodies whose count drops to zero are
+ * removed by {@link ContentPurger}.
+ */
+@Component
+@Transactional
+public class ContentBodyStore {
+    
+    private static final String INSERT_BODY = "INSERT INTO content_body (hash, body, ref_count) VALUES (?, ?, 1)";
+    
+    private final ContentBodyRepository bodyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    
+    public ContentBodyStore(ContentBodyRepository bodyRepository, JdbcTemplate jdbcTemplate) {
+        this.bodyRepository = bodyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    public ContentBody acquire(String body) {
+        return acquire(ContentBody.hashOf(body), body);
+    }
+    
+    /**
+     * Returns the stored body for the given hash, adding one reference. The body is
+     * inserted with a single reference if it is not stored yet. Concurrent writers of
+     * the same new body are safe: the one whose insert loses takes a reference on the
+     * winner's row instead of failing.
+     */
+    public ContentBody acquire(String hash, String body) {
+        if (bodyRepository.incrementRefCount(hash) == 0 && !insertIfAbsent(hash, body)) {
+            bodyRepository.incrementRefCount(hash);
+        }
+        return bodyRepository.getReferenceById(hash);
+    }
+    
+    public void release(String hash) {
+        bodyRepository.decrementRefCount(hash);
+    }
+    
+    /**
+     * Inserts the body on the transaction's own connection. A concurrent insert of the
+     * same hash blocks this one until it commits; the duplicate key is then rolled back
+     * to a savepoint, so neither the transaction nor the persistence context is marked
+     * for rollback. Returns false if the row already existed.
+     */
+    private boolean insertIfAbsent(String hash, String body) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_BODY)) {
+                insert.setString(1, hash);
+                insert.setString(2, body);
+                insert.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (SQLException ex) {
+                connection.rollback(savepoint);
+                // SQLState class 23: integrity constraint violation
+                if (ex.getSQLState() != null && ex.getSQLState().startsWith("23")) {
+                    return false;
+                }
+                throw ex;
+            }
+        }));
+    }
+}
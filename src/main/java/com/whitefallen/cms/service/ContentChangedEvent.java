@@ -0,0 +1,60 @@
+package com.whitefallen.cms.service;
+
+import com.whitefallen.cms.dto.ContentResponse;
+
+/**
+ * Published by {@link ContentService} for every successful write. Listeners that keep
+ * derived state (indexes, counters) in sync should use a transactional event listener
+ * so they only see committed changes.
+ */
+public class ContentChangedEvent {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+    
+    private final Type type;
+    private final Long contentId;
+    private final ContentResponse previous;
+    private final ContentResponse current;
+    
+    public ContentChangedEvent(Type type, Long contentId, ContentResponse previous, ContentResponse current) {
+        this.type = type;
+        this.contentId = contentId;
+        this.previous = previous;
+        this.current = current;
+    }
+    
+    public static ContentChangedEvent created(ContentResponse current) {
+        return new ContentChangedEvent(Type.CREATED, current.getId(), null, current);
+    }
+    
+    public static ContentChangedEvent updated(ContentResponse previous, ContentResponse current) {
+        return new ContentChangedEvent(Type.UPDATED, current.getId(), previous, current);
+    }
+    
+    public static ContentChangedEvent deleted(Long contentId, ContentResponse previous) {
+        return new ContentChangedEvent(Type.DELETED, contentId, previous, null);
+    }
+    
+    // Getters
+    public Type getType() {
+        return type;
+    }
+    
+    public Long getContentId() {
+        return contentId;
+    }
+    
+    // State before the change; null for CREATED and when the writer did not load it
+    public ContentResponse getPrevious() {
+        return previous;
+    }
+    
+    // State after the change; null for DELETED
+    public ContentResponse getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,107 @@
+package com.whitefallen.cms.service;
+
+import com.whitefallen.cms.config.PurgeProperties;
+import com.whitefallen.cms.repository.ContentBodyRepository;
+import com.whitefallen.cms.repository.ContentRenditionRepository;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.tiering.ContentArchive;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Hard-deletes soft-deleted content once its retention has passed, along with bodies
+ * no longer referenced by any row, renditions and archived copies of the deleted rows.
+ * Runs on a cron schedule meant for off-peak hours and works in small batches, each
+ * in its own transaction, pausing between batches to keep the load on the database
+ * paced.
+ */
+@Component
+public class ContentPurger {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContentPurger.class);
+    
+    private final ContentRepository contentRepository;
+    private final ContentBodyRepository bodyRepository;
+    private final ContentRenditionRepository renditionRepository;
+    private final ContentArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final PurgeProperties properties;
+    private final Counter purgedRows;
+    
+    public ContentPurger(ContentRepository contentRepository,
+                         ContentBodyRepository bodyRepository,
+                         ContentRenditionRepository renditionRepository,
+                         ContentArchive archive,
+                         TransactionTemplate transactionTemplate,
+                         PurgeProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.contentRepository = contentRepository;
+        this.bodyRepository = bodyRepository;
+        this.renditionRepository = renditionRepository;
+        this.archive = archive;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.purgedRows = Counter.builder("cms.purge.rows")
+            .description("Soft-deleted rows removed by the purger")
+            .register(meterRegistry);
+    }
+    
+    @Scheduled(cron = "${cms.purge.cron:0 */10 1-5 * * *}")
+    public void scheduledPurge() {
+        if (properties.isEnabled()) {
+            purge();
+        }
+    }
+    
+    /**
+     * Runs one purge pass and returns the number of rows removed.
+     */
+    public int purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            Integer purged = transactionTemplate.execute(status -> {
+                List<Long> ids = contentRepository.findPurgeableIds(cutoff, properties.getBatchSize());
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                // Tombstones still hold their body reference until they are hard-deleted
+                bodyRepository.releaseReferencesOf(ids);
+                int deleted = contentRepository.purgeByIds(ids);
+                bodyRepository.deleteUnreferenced();
+                renditionRepository.deleteByContentIds(ids);
+                // Archived tombstones keep their body on disk instead
+                ids.forEach(archive::deleteAfterCommit);
+                return deleted;
+            });
+            int count = purged == null ? 0 : purged;
+            total += count;
+            purgedRows.increment(count);
+            if (count < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Purged {} soft-deleted content rows older than {}", total, cutoff);
+        }
+        return total;
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenBatches().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.whitefallen.cms.service;
+
+import com.whitefallen.cms.config.CoalescingProperties;
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.repository.ContentReadView;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Collapses concurrent identical reads into a single call to {@link ContentService}.
+ * Sits outside the service's transaction so that waiting followers do not hold
+ * a database connection.
+ */
+@Component
+public class ContentReadCoalescer {
+    
+    private final ContentService contentService;
+    private final CoalescingProperties properties;
+    private final SingleFlight<Long, ContentResponse> byId;
+    private final SingleFlight<String, List<ContentReadView>> bySearch;
+    private final SingleFlight<Long, ContentResponse> byIdWithoutBody;
+    private final SingleFlight<String, List<ContentReadView>> bySearchWithoutBody;
+    
+    public ContentReadCoalescer(ContentService contentService,
+                                CoalescingProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.contentService = contentService;
+        this.properties = properties;
+        this.byId = new SingleFlight<>("getById", properties.getTimeout(), meterRegistry);
+        this.bySearch = new SingleFlight<>("search", properties.getTimeout(), meterRegistry);
+        this.byIdWithoutBody = new SingleFlight<>("getByIdWithoutBody", properties.getTimeout(), meterRegistry);
+        this.bySearchWithoutBody = new SingleFlight<>("searchWithoutBody", properties.getTimeout(), meterRegistry);
+    }
+    
+    public ContentResponse getContentById(Long id) {
+        if (!properties.isEnabled()) {
+            return contentService.getContentById(id);
+        }
+        return byId.execute(id, () -> contentService.getContentById(id));
+    }
+    
+    public List<ContentReadView> searchContent(String title) {
+        if (!properties.isEnabled()) {
+            return contentService.searchContent(title);
+        }
+        // Search is case-insensitive, so differently cased terms can share a load
+        return bySearch.execute(title.toLowerCase(Locale.ROOT), () -> contentService.searchContent(title));
+    }
+    
+    public ContentResponse getContentWithoutBodyById(Long id) {
+        if (!properties.isEnabled()) {
+            return contentService.getContentWithoutBodyById(id);
+        }
+        return byIdWithoutBody.execute(id, () -> contentService.getContentWithoutBodyById(id));
+    }
+    
+    public List<ContentReadView> searchContentWithoutBody(String title) {
+        if (!properties.isEnabled()) {
+            return contentService.searchContentWithoutBody(title);
+        }
+        return bySearchWithoutBody.execute(title.toLowerCase(Locale.ROOT),
+            () -> contentService.searchContentWithoutBody(title));
+    }
+}
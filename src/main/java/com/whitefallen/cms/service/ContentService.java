@@ -1,64 +1,303 @@
 package com.whitefallen.cms.service;
 
+import com.whitefallen.cms.dto.ContentPatchRequest;
 import com.whitefallen.cms.dto.ContentRequest;
 import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.dto.MultiGetResponse;
 import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.model.ContentBody;
+import com.whitefallen.cms.repository.ContentReadView;
 import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.tiering.ContentTiering;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 
 @Service
 @Transactional
 public class ContentService {
     
+    public static final int MAX_BATCH_SIZE = 100;
+    
     private final ContentRepository contentRepository;
+    private final ContentBodyStore bodyStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ContentTiering tiering;
     
-    public ContentService(ContentRepository contentRepository) {
+    public ContentService(ContentRepository contentRepository,
+                          ContentBodyStore bodyStore,
+                          ApplicationEventPublisher eventPublisher,
+                          Validator validator,
+                          ContentTiering tiering) {
         this.contentRepository = contentRepository;
+        this.bodyStore = bodyStore;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.tiering = tiering;
+    }
+    
+    // Rows rather than responses, so that the list can be written without a copy per row
+    public List<ContentReadView> getAllContent() {
+        return withArchivedBodies(contentRepository.findAllVisible());
     }
     
-    public List<ContentResponse> getAllContent() {
-        return contentRepository.findAll().stream()
-            .map(ContentResponse::fromContent)
-            .collect(Collectors.toList());
+    // Without the body, for views that are served from renditions
+    public List<ContentReadView> getAllContentWithoutBody() {
+        return contentRepository.findAllVisibleMetadata();
     }
     
     public ContentResponse getContentById(Long id) {
-        Content content = contentRepository.findById(id)
+        ContentReadView content = contentRepository.findVisibleById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
+        tiering.recordAccess(id);
+        ContentResponse response = fromReadView(content);
+        if (content.isArchived()) {
+            // May write: reading an archived article by id can bring it back into the hot tier
+            response.setBody(tiering.promoteOnRead(id));
+        }
+        return response;
+    }
+    
+    // Neither reads nor promotes an archived body
+    public ContentResponse getContentWithoutBodyById(Long id) {
+        ContentReadView content = contentRepository.findVisibleMetadataById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
-        return ContentResponse.fromContent(content);
+        tiering.recordAccess(id);
+        return fromReadView(content);
+    }
+    
+    /**
+     * Loads several items with a single IN query. Duplicate ids are collapsed, the
+     * result keeps the order of first appearance, and ids that do not exist or are not
+     * visible are reported in {@link MultiGetResponse#getMissingIds()} instead of
+     * failing the call.
+     */
+    public MultiGetResponse getContentByIds(List<Long> ids) {
+        Set<Long> requested = validateIds(ids);
+        return collect(requested, contentRepository.findVisibleByIdIn(requested), this::toResponse);
+    }
+    
+    public MultiGetResponse getContentWithoutBodyByIds(List<Long> ids) {
+        Set<Long> requested = validateIds(ids);
+        return collect(requested, contentRepository.findVisibleMetadataByIdIn(requested), ContentService::fromReadView);
     }
     
     public ContentResponse createContent(ContentRequest request) {
-        Content content = new Content(request.getTitle(), request.getBody());
+        validateWindow(request.getPublishAt(), request.getUnpublishAt());
+        Content content = new Content(request.getTitle(), bodyStore.acquire(request.getBody()));
+        applyWindow(content, request.getPublishAt(), request.getUnpublishAt());
         Content savedContent = contentRepository.save(content);
-        return ContentResponse.fromContent(savedContent);
+        ContentResponse created = ContentResponse.fromContent(savedContent);
+        eventPublisher.publishEvent(ContentChangedEvent.created(created));
+        return created;
     }
     
     public ContentResponse updateContent(Long id, ContentRequest request) {
-        Content content = contentRepository.findById(id)
+        Content content = contentRepository.findForEditById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
+        validateWindow(request.getPublishAt(), request.getUnpublishAt());
+        tiering.restore(content);
+        ContentResponse previous = ContentResponse.fromContent(content);
         
         content.setTitle(request.getTitle());
-        content.setBody(request.getBody());
-        
-        Content updatedContent = contentRepository.save(content);
-        return ContentResponse.fromContent(updatedContent);
+        applyWindow(content, request.getPublishAt(), request.getUnpublishAt());
+        replaceBody(content, request.getBody());
+        return saveUpdate(content, previous);
+    }
+    
+    /**
+     * Applies a JSON Merge Patch. Only the supplied fields are validated and changed,
+     * and Content uses dynamic updates, so the UPDATE statement carries just the changed
+     * columns. Unless the patch supplies a body, the stored body is not read, so the
+     * response and the change event leave it out. An empty patch writes nothing.
+     */
+    public ContentResponse patchContent(Long id, ContentPatchRequest patch) {
+        Content content = contentRepository.findForEditById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
+        validatePatch(patch);
+        // The window is checked as it will be after the patch, old and new bounds combined
+        LocalDateTime publishAt = patch.hasPublishAt() ? patch.getPublishAt() : content.getPublishAt();
+        LocalDateTime unpublishAt = patch.hasUnpublishAt() ? patch.getUnpublishAt() : content.getUnpublishAt();
+        validateWindow(publishAt, unpublishAt);
+        if (!patch.hasAnyField()) {
+            return ContentResponse.withoutBody(content);
+        }
+        if (!patch.hasBody()) {
+            ContentResponse previous = ContentResponse.withoutBody(content);
+            applyPatch(content, patch, publishAt, unpublishAt);
+            return saveUpdate(content, previous, ContentResponse::withoutBody);
+        }
+        tiering.restore(content);
+        ContentResponse previous = ContentResponse.fromContent(content);
+        applyPatch(content, patch, publishAt, unpublishAt);
+        replaceBody(content, patch.getBody());
+        return saveUpdate(content, previous);
     }
     
     public void deleteContent(Long id) {
-        if (!contentRepository.existsById(id)) {
+        // Soft delete: one UPDATE, the row is hard-deleted later by ContentPurger. The old state
+        // is not read, so ContentStatistics only drops the total and its next pass fixes the rest
+        if (contentRepository.softDeleteById(id, LocalDateTime.now()) == 0) {
             throw new ResourceNotFoundException("Content not found with id: " + id);
         }
-        contentRepository.deleteById(id);
+        eventPublisher.publishEvent(ContentChangedEvent.deleted(id, null));
+    }
+    
+    public List<ContentReadView> searchContent(String title) {
+        return withArchivedBodies(contentRepository.searchVisibleByTitle(title));
+    }
+    
+    public List<ContentReadView> searchContentWithoutBody(String title) {
+        return contentRepository.searchVisibleMetadataByTitle(title);
+    }
+    
+    private static Set<Long> validateIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.isEmpty()) {
+            throw new InvalidRequestException("At least one id is required");
+        }
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_BATCH_SIZE + " ids can be requested at once");
+        }
+        return requested;
+    }
+    
+    private MultiGetResponse collect(Set<Long> requested, List<ContentReadView> rows,
+                                     Function<ContentReadView, ContentResponse> mapper) {
+        Map<Long, ContentResponse> found = new HashMap<>();
+        for (ContentReadView content : rows) {
+            found.put(content.getId(), mapper.apply(content));
+        }
+        tiering.recordAccess(found.keySet());
+        
+        List<ContentResponse> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            ContentResponse content = found.get(id);
+            if (content != null) {
+                items.add(content);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MultiGetResponse(items, missingIds);
+    }
+    
+    // Archived bodies are read through from the archive without promoting the row
+    private List<ContentReadView> withArchivedBodies(List<ContentReadView> rows) {
+        List<ContentReadView> result = new ArrayList<>(rows);
+        for (int i = 0; i < result.size(); i++) {
+            ContentReadView row = result.get(i);
+            if (row.isArchived()) {
+                result.set(i, row.withBody(tiering.archivedBody(row.getId())));
+            }
+        }
+        return result;
+    }
+    
+    private ContentResponse toResponse(ContentReadView content) {
+        ContentResponse response = fromReadView(content);
+        if (content.isArchived()) {
+            response.setBody(tiering.archivedBody(content.getId()));
+        }
+        return response;
+    }
+    
+    private static ContentResponse fromReadView(ContentReadView view) {
+        ContentResponse response = new ContentResponse(
+            view.getId(),
+            view.getTitle(),
+            view.getBody(),
+            view.getCreatedAt(),
+            view.getUpdatedAt()
+        );
+        response.setPublishAt(view.getPublishAt());
+        response.setUnpublishAt(view.getUnpublishAt());
+        response.setVisible(view.isVisible());
+        response.setBodyHash(view.getBodyHash());
+        return response;
+    }
+    
+    private void applyPatch(Content content, ContentPatchRequest patch,
+                            LocalDateTime publishAt, LocalDateTime unpublishAt) {
+        if (patch.hasTitle()) {
+            content.setTitle(patch.getTitle());
+        }
+        if (patch.hasPublishAt() || patch.hasUnpublishAt()) {
+            applyWindow(content, publishAt, unpublishAt);
+        }
+    }
+    
+    private ContentResponse saveUpdate(Content content, ContentResponse previous) {
+        return saveUpdate(content, previous, ContentResponse::fromContent);
+    }
+    
+    private ContentResponse saveUpdate(Content content, ContentResponse previous,
+                                       Function<Content, ContentResponse> toResponse) {
+        Content updatedContent = contentRepository.save(content);
+        // Flush so that @PreUpdate has set updatedAt before the response and event are built
+        contentRepository.flush();
+        ContentResponse updated = toResponse.apply(updatedContent);
+        eventPublisher.publishEvent(ContentChangedEvent.updated(previous, updated));
+        return updated;
+    }
+    
+    // An unchanged body keeps its pointer, so the body table is not written at all
+    private void replaceBody(Content content, String body) {
+        String bodyHash = ContentBody.hashOf(body);
+        if (!bodyHash.equals(content.getBodyHash())) {
+            String previousHash = content.getBodyHash();
+            content.setBodyBlob(bodyStore.acquire(bodyHash, body));
+            if (previousHash != null) {
+                bodyStore.release(previousHash);
+            }
+        }
+    }
+    
+    // Supplied fields must satisfy the same constraints as in a full ContentRequest
+    private void validatePatch(ContentPatchRequest patch) {
+        Set<String> errors = new TreeSet<>();
+        if (patch.hasTitle()) {
+            collectViolations(errors, validator.validateValue(ContentRequest.class, "title", patch.getTitle()));
+        }
+        if (patch.hasBody()) {
+            collectViolations(errors, validator.validateValue(ContentRequest.class, "body", patch.getBody()));
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidRequestException(String.join("; ", errors));
+        }
+    }
+    
+    private static void collectViolations(Set<String> errors, Set<ConstraintViolation<ContentRequest>> violations) {
+        for (ConstraintViolation<ContentRequest> violation : violations) {
+            errors.add(violation.getMessage());
+        }
+    }
+    
+    private void validateWindow(LocalDateTime publishAt, LocalDateTime unpublishAt) {
+        if (publishAt != null && unpublishAt != null && !unpublishAt.isAfter(publishAt)) {
+            throw new InvalidRequestException("unpublishAt must be after publishAt");
+        }
     }
     
-    public List<ContentResponse> searchContent(String title) {
-        return contentRepository.findByTitleContainingIgnoreCase(title).stream()
-            .map(ContentResponse::fromContent)
-            .collect(Collectors.toList());
+    // Times still ahead are picked up by PublicationScheduler from the change event
+    private void applyWindow(Content content, LocalDateTime publishAt, LocalDateTime unpublishAt) {
+        content.setPublishAt(publishAt);
+        content.setUnpublishAt(unpublishAt);
+        content.setVisible(Content.isVisibleAt(publishAt, unpublishAt, LocalDateTime.now()));
     }
 }
@@ -0,0 +1,22 @@
+package com.whitefallen.cms.service;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public ServiceUnavailableException(String message) {
+        this(message, null);
+    }
+    
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    // Suggested client back-off, or null when the server has no hint to give
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
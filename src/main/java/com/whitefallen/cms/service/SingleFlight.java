@@ -0,0 +1,98 @@
+package com.whitefallen.cms.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight load between concurrent callers asking for the same key.
+ * The first caller (the leader) runs the loader on its own thread; callers arriving
+ * while it is running (followers) wait for the leader's result instead of loading again.
+ * Nothing is kept once the load completes, so this is not a cache.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final String operation;
+    private final Duration timeout;
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter timeouts;
+    
+    public SingleFlight(String operation, Duration timeout, MeterRegistry meterRegistry) {
+        this.operation = operation;
+        this.timeout = timeout;
+        this.leaders = Counter.builder("cms.coalescing.calls")
+            .tag("operation", operation)
+            .tag("role", "leader")
+            .register(meterRegistry);
+        this.followers = Counter.builder("cms.coalescing.calls")
+            .tag("operation", operation)
+            .tag("role", "follower")
+            .register(meterRegistry);
+        this.timeouts = Counter.builder("cms.coalescing.timeouts")
+            .tag("operation", operation)
+            .register(meterRegistry);
+        Gauge.builder("cms.coalescing.ratio", this, SingleFlight::coalescingRatio)
+            .tag("operation", operation)
+            .description("Share of calls that were served by another caller's load")
+            .register(meterRegistry);
+    }
+    
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            followers.increment();
+            return await(existing);
+        }
+        
+        leaders.increment();
+        try {
+            V value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            created.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+    
+    public double coalescingRatio() {
+        double coalesced = followers.count();
+        double total = coalesced + leaders.count();
+        return total == 0 ? 0.0 : coalesced / total;
+    }
+    
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            throw new ServiceUnavailableException("Timed out waiting for in-flight " + operation + " load");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for in-flight " + operation + " load");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.whitefallen.cms.stats;
+
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.dto.ContentStatsResponse;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.repository.DailyCountView;
+import com.whitefallen.cms.repository.LengthCountView;
+import com.whitefallen.cms.service.ContentChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Aggregate statistics over content, held in memory so that reading them never
+ * scans the table. Counters are loaded when the application starts, adjusted for
+ * every committed write through {@link ContentChangedEvent}, and periodically
+ * replaced by a fresh aggregate from the database. Deletes do not read the old
+ * row, so they only lower the total; the per-day counts and length distributions
+ * keep the row until the next pass.
+ */
+@Component
+public class ContentStatistics {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContentStatistics.class);
+    
+    private final ContentRepository contentRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Counters counters = new Counters();
+    private LocalDateTime reconciledAt;
+    
+    public ContentStatistics(ContentRepository contentRepository) {
+        this.contentRepository = contentRepository;
+    }
+    
+    /**
+     * Replaces the counters with aggregates computed from the database. The counters
+     * are not versioned, so a write that commits around a pass may be off until the
+     * next one: if it commits before the aggregate queries read it but its event is
+     * applied after the swap, it is counted twice; if it commits after they ran and
+     * its event is applied before the swap, it is lost with the old counters.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cms.stats.reconcile-interval:PT15M}",
+               initialDelayString = "${cms.stats.reconcile-interval:PT15M}")
+    public void reconcile() {
+        // Aggregate outside the lock so that readers and writers are not blocked meanwhile
+        Counters fresh = new Counters();
+        for (DailyCountView view : contentRepository.countCreatedPerDay()) {
+            fresh.created.put(view.getDay(), view.getCount());
+        }
+        for (DailyCountView view : contentRepository.countUpdatedPerDay()) {
+            fresh.updated.put(view.getDay(), view.getCount());
+        }
+        for (LengthCountView view : contentRepository.countByTitleLength()) {
+            fresh.titleLengths.add(view.getLength(), view.getCount());
+            fresh.total += view.getCount();
+        }
+        for (LengthCountView view : contentRepository.countByBodyLength()) {
+            fresh.bodyLengths.add(view.getLength(), view.getCount());
+        }
+        for (LengthCountView view : contentRepository.countByArchivedBodyLength()) {
+            fresh.bodyLengths.add(view.getLength(), view.getCount());
+        }
+        
+        long drift;
+        lock.writeLock().lock();
+        try {
+            drift = fresh.total - counters.total;
+            counters = fresh;
+            reconciledAt = LocalDateTime.now();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (drift != 0) {
+            log.info("Content statistics reconciled with {} rows, total corrected by {}", fresh.total, drift);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getPrevious() != null) {
+                counters.apply(event.getPrevious(), -1);
+            } else if (event.getType() == ContentChangedEvent.Type.DELETED) {
+                // Without the old state only the total can move; buckets catch up on the next pass
+                counters.total--;
+            }
+            if (event.getCurrent() != null) {
+                counters.apply(event.getCurrent(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the current statistics, with per-day counts limited to the last
+     * {@code days} days up to and including today.
+     */
+    public ContentStatsResponse snapshot(int days) {
+        LocalDate from = LocalDate.now().minusDays(days - 1L);
+        lock.readLock().lock();
+        try {
+            return new ContentStatsResponse(
+                counters.total,
+                new LinkedHashMap<>(counters.created.tailMap(from, true)),
+                new LinkedHashMap<>(counters.updated.tailMap(from, true)),
+                counters.titleLengths.snapshot(),
+                counters.bodyLengths.snapshot(),
+                reconciledAt
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static class Counters {
+        
+        private final NavigableMap<LocalDate, Long> created = new TreeMap<>();
+        private final NavigableMap<LocalDate, Long> updated = new TreeMap<>();
+        private final LengthHistogram titleLengths = new LengthHistogram();
+        private final LengthHistogram bodyLengths = new LengthHistogram();
+        private long total;
+        
+        void apply(ContentResponse content, int sign) {
+            total += sign;
+            adjust(created, content.getCreatedAt(), sign);
+            adjust(updated, content.getUpdatedAt(), sign);
+            if (content.getTitle() != null) {
+                titleLengths.add(content.getTitle().length(), sign);
+            }
+            if (content.getBody() != null) {
+                bodyLengths.add(content.getBody().length(), sign);
+            }
+        }
+        
+        private static void adjust(Map<LocalDate, Long> perDay, LocalDateTime timestamp, int sign) {
+            if (timestamp != null) {
+                // Drop days that reach zero so the maps only hold days with rows
+                perDay.merge(timestamp.toLocalDate(), (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.whitefallen.cms.stats;
+
+import com.whitefallen.cms.dto.SizeDistribution;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-bucket histogram of text lengths. Buckets grow by a factor of four, so the
+ * number of buckets, and the cost of a snapshot, does not depend on how many rows
+ * are counted. Not thread-safe; {@link ContentStatistics} guards it.
+ */
+class LengthHistogram {
+    
+    // Exclusive upper bounds; the last bucket is open-ended
+    private static final int[] BOUNDS = {16, 64, 256, 1024, 4096, 16384, 65536};
+    
+    private final long[] counts = new long[BOUNDS.length + 1];
+    private long count;
+    private long totalLength;
+    
+    void add(int length, long rows) {
+        counts[bucketOf(length)] += rows;
+        count += rows;
+        totalLength += (long) length * rows;
+    }
+    
+    SizeDistribution snapshot() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        int lower = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            buckets.put(lower + "-" + (BOUNDS[i] - 1), counts[i]);
+            lower = BOUNDS[i];
+        }
+        buckets.put(lower + "+", counts[BOUNDS.length]);
+        double average = count == 0 ? 0 : (double) totalLength / count;
+        return new SizeDistribution(count, average, buckets);
+    }
+    
+    private static int bucketOf(int length) {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            if (length < BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS.length;
+    }
+}
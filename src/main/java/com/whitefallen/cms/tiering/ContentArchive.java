@@ -0,0 +1,117 @@
+package com.whitefallen.cms.tiering;
+
+import com.whitefallen.cms.config.TieringProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold tier for content bodies: one gzip file per content row on local disk, spread
+ * over subdirectories by id. Bodies are written once and read rarely, so they are
+ * compressed at the highest level.
+ */
+@Component
+public class ContentArchive {
+    
+    private static final int SHARDS = 1000;
+    
+    private final Path directory;
+    
+    public ContentArchive(TieringProperties properties) {
+        if (properties.isEnabled() && properties.getDirectory() == null) {
+            throw new IllegalStateException("cms.tiering.directory must be set when tiering is enabled");
+        }
+        this.directory = properties.getDirectory();
+    }
+    
+    /**
+     * Stores the body, replacing an earlier copy. The file is written under a temporary
+     * name and moved into place, so readers never see a partial file.
+     */
+    public void write(Long contentId, String body) {
+        Path file = fileOf(contentId);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = Files.createTempFile(file.getParent(), contentId + "-", ".tmp");
+            try {
+                try (OutputStream out = new BestCompressionGzipStream(Files.newOutputStream(temporary))) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not archive body of content " + contentId, ex);
+        }
+    }
+    
+    // Empty when there is no archived copy, e.g. because the row was promoted meanwhile
+    public Optional<String> read(Long contentId) {
+        if (directory == null) {
+            return Optional.empty();
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(fileOf(contentId)))) {
+            return Optional.of(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read archived body of content " + contentId, ex);
+        }
+    }
+    
+    public void delete(Long contentId) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(fileOf(contentId));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not delete archived body of content " + contentId, ex);
+        }
+    }
+    
+    /**
+     * Deletes the archived copy once the surrounding transaction has committed, so a
+     * rollback leaves the row pointing at a body that still exists.
+     */
+    public void deleteAfterCommit(Long contentId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delete(contentId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                delete(contentId);
+            }
+        });
+    }
+    
+    Path fileOf(Long contentId) {
+        String shard = String.format("%03d", Math.floorMod(contentId, SHARDS));
+        return directory.resolve(shard).resolve(contentId + ".gz");
+    }
+    
+    private static class BestCompressionGzipStream extends GZIPOutputStream {
+        
+        BestCompressionGzipStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.whitefallen.cms.tiering;
+
+import com.whitefallen.cms.config.TieringProperties;
+import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.model.ContentBody;
+import com.whitefallen.cms.repository.ContentBodyRepository;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.service.ContentBodyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Moves content bodies between the hot tier (shared rows in {@code content_body}) and
+ * the cold tier ({@link ContentArchive}). A background run archives rows that have been
+ * neither updated nor read for {@code cms.tiering.cold-after}; the content row itself
+ * stays as a small stub, so titles, windows and search keep working on the table alone.
+ * Reading an archived article by id promotes it back.
+ *
+ * Reads are tracked in memory and written to {@link Content#getLastAccessedAt()} in bulk
+ * at the start of each run, so the read path never issues an UPDATE of its own.
+ * Moving a body between tiers is not an edit: updatedAt is left alone and no
+ * {@code ContentChangedEvent} is published.
+ */
+@Component
+public class ContentTiering {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContentTiering.class);
+    private static final int ACCESS_BATCH_SIZE = 500;
+    
+    private final ContentRepository contentRepository;
+    private final ContentBodyRepository bodyRepository;
+    private final ContentBodyStore bodyStore;
+    private final ContentArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final TieringProperties properties;
+    private final Set<Long> accessed = ConcurrentHashMap.newKeySet();
+    private final Semaphore promotions;
+    private final Counter archivedRows;
+    private final Counter promotedRows;
+    
+    public ContentTiering(ContentRepository contentRepository,
+                          ContentBodyRepository bodyRepository,
+                          ContentBodyStore bodyStore,
+                          ContentArchive archive,
+                          TransactionTemplate transactionTemplate,
+                          TieringProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.contentRepository = contentRepository;
+        this.bodyRepository = bodyRepository;
+        this.bodyStore = bodyStore;
+        this.archive = archive;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.promotions = new Semaphore(properties.getMaxConcurrentPromotions());
+        this.archivedRows = Counter.builder("cms.tiering.archived")
+            .description("Content rows whose body was moved to the archive")
+            .register(meterRegistry);
+        this.promotedRows = Counter.builder("cms.tiering.promoted")
+            .description("Archived content rows whose body was moved back to the database")
+            .register(meterRegistry);
+    }
+    
+    // Accesses are only flushed by archive runs, so none are kept while those are off
+    public void recordAccess(Long contentId) {
+        if (properties.isEnabled()) {
+            accessed.add(contentId);
+        }
+    }
+    
+    public void recordAccess(Collection<Long> contentIds) {
+        if (properties.isEnabled()) {
+            accessed.addAll(contentIds);
+        }
+    }
+    
+    /**
+     * Returns the body of a row read as archived. If the row was promoted since it was
+     * read, the archive copy is gone and the body is read from the database instead.
+     */
+    public String archivedBody(Long contentId) {
+        return archive.read(contentId)
+            .or(() -> contentRepository.findStoredBody(contentId))
+            .orElseThrow(() -> new IllegalStateException("Archived body of content " + contentId + " is missing"));
+    }
+    
+    /**
+     * Returns the body of an archived row read by id, promoting the row unless promotion
+     * on read is disabled or {@code cms.tiering.max-concurrent-promotions} reads are
+     * already promoting. This is the only read path that writes: one body insert or
+     * reference increment and one UPDATE of the row, in the reader's transaction. A read
+     * that does not get to promote serves the body from the archive, and the row stays
+     * archived until a later read promotes it.
+     */
+    public String promoteOnRead(Long contentId) {
+        if (!properties.isPromoteOnRead() || !promotions.tryAcquire()) {
+            return archivedBody(contentId);
+        }
+        try {
+            return promote(contentId);
+        } finally {
+            promotions.release();
+        }
+    }
+    
+    /**
+     * Moves an archived row back to the hot tier and returns its body. The row is updated
+     * in bulk, so the promotion does not count as an edit. Must run in a transaction.
+     */
+    public String promote(Long id) {
+        Optional<String> archived = archive.read(id);
+        if (archived.isEmpty()) {
+            // Another read promoted it first
+            return archivedBody(id);
+        }
+        String body = archived.get();
+        ContentBody stored = bodyStore.acquire(body);
+        if (contentRepository.restoreArchived(id, stored.getHash(), LocalDateTime.now()) == 0) {
+            bodyStore.release(stored.getHash());
+        } else {
+            archive.deleteAfterCommit(id);
+            promotedRows.increment();
+        }
+        return body;
+    }
+    
+    /**
+     * Puts the body of an archived row back on the entity ahead of an edit, so the edit
+     * and its change event see the current body. Does nothing for hot rows.
+     */
+    public void restore(Content content) {
+        if (!content.isArchived()) {
+            return;
+        }
+        content.setBodyBlob(bodyStore.acquire(archivedBody(content.getId())));
+        content.setArchived(false);
+        content.setArchivedBodyLength(null);
+        content.setArchivedBodyHash(null);
+        archive.deleteAfterCommit(content.getId());
+        promotedRows.increment();
+    }
+    
+    @Scheduled(fixedDelayString = "${cms.tiering.interval:PT1H}",
+               initialDelayString = "${cms.tiering.interval:PT1H}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            archiveColdContent();
+        }
+    }
+    
+    /**
+     * Records the reads seen since the last run, then archives cold content in batches,
+     * each in its own transaction. Returns the number of rows archived.
+     */
+    public int archiveColdContent() {
+        LocalDateTime now = LocalDateTime.now();
+        flushAccesses(now);
+        LocalDateTime cutoff = now.minus(properties.getColdAfter());
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            int count = moved == null ? 0 : moved;
+            total += count;
+            archivedRows.increment(count);
+            if (count < properties.getBatchSize()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} content rows neither updated nor read since {}", total, cutoff);
+        }
+        return total;
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Content> candidates = contentRepository.findArchiveCandidates(cutoff, Limit.of(properties.getBatchSize()));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        // Files first: after a rollback a stray copy is harmless and overwritten on the next attempt
+        List<Long> ids = new ArrayList<>(candidates.size());
+        for (Content content : candidates) {
+            archive.write(content.getId(), content.getBody());
+            ids.add(content.getId());
+        }
+        bodyRepository.releaseReferencesOf(ids);
+        for (Content content : candidates) {
+            contentRepository.markArchived(content.getId(), content.getBody().length(), content.getBodyHash());
+        }
+        bodyRepository.deleteUnreferenced();
+        return candidates.size();
+    }
+    
+    private void flushAccesses(LocalDateTime now) {
+        List<Long> batch = new ArrayList<>(ACCESS_BATCH_SIZE);
+        Iterator<Long> ids = accessed.iterator();
+        while (ids.hasNext()) {
+            batch.add(ids.next());
+            ids.remove();
+            if (batch.size() == ACCESS_BATCH_SIZE || !ids.hasNext()) {
+                List<Long> chunk = List.copyOf(batch);
+                transactionTemplate.executeWithoutResult(status -> contentRepository.markAccessed(chunk, now));
+                batch.clear();
+            }
+        }
+    }
+}
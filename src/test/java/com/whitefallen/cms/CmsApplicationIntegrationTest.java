@@ -3,6 +3,9 @@ package com.whitefallen.cms;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.whitefallen.cms.dto.ContentRequest;
 import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.model.ContentRendition;
+import com.whitefallen.cms.rendering.ContentRenderer;
+import com.whitefallen.cms.repository.ContentRenditionRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -11,6 +14,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -26,6 +32,9 @@ class CmsApplicationIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private ContentRenditionRepository renditionRepository;
+    
     @Test
     void contextLoads() {
         assertThat(mockMvc).isNotNull();
@@ -69,6 +78,29 @@ class CmsApplicationIntegrationTest {
                 .andExpect(jsonPath("$.title", is("Updated Title")))
                 .andExpect(jsonPath("$.body", is("Updated Body")));
         
+        // Patch the title only - the body is left as it was and not read back
+        mockMvc.perform(patch("/api/content/" + contentId)
+                .contentType("application/merge-patch+json")
+                .content("{\"title\":\"Patched Title\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Patched Title")))
+                .andExpect(jsonPath("$.body").doesNotExist());
+        
+        mockMvc.perform(get("/api/content/" + contentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body", is("Updated Body")));
+        
+        // A required field cannot be removed by a patch
+        mockMvc.perform(patch("/api/content/" + contentId)
+                .contentType("application/merge-patch+json")
+                .content("{\"title\":null}"))
+                .andExpect(status().isBadRequest());
+        
+        mockMvc.perform(patch("/api/content/" + contentId)
+                .contentType("application/merge-patch+json")
+                .content("{\"title\":\"Updated Title\"}"))
+                .andExpect(status().isOk());
+        
         // Get all content - should have at least one
         mockMvc.perform(get("/api/content")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -82,6 +114,13 @@ class CmsApplicationIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[*].title", hasItem("Updated Title")));
         
+        // Suggest titles - index follows committed writes
+        mockMvc.perform(get("/api/content/suggest")
+                .param("q", "updat")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem(contentId.intValue())));
+        
         // Delete content
         mockMvc.perform(delete("/api/content/" + contentId)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -92,4 +131,49 @@ class CmsApplicationIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+    
+    @Test
+    void whenContentIsWritten_thenRenditionIsRenderedInTheBackground() throws Exception {
+        // Create content with a Markdown body
+        ContentRequest createRequest = new ContentRequest("Rendered Title", "Some **bold** text");
+        
+        MvcResult createResult = mockMvc.perform(post("/api/content")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long contentId = objectMapper.readValue(createResult.getResponse().getContentAsString(), ContentResponse.class)
+            .getId();
+        
+        // The rendition is stored after the commit, without a read asking for it
+        ContentRendition rendition = await().atMost(Duration.ofSeconds(5))
+            .until(() -> renditionRepository.findById(contentId).orElse(null), found -> found != null);
+        assertThat(rendition.getHtml()).isEqualTo("<p>Some <strong>bold</strong> text</p>\n");
+        assertThat(rendition.getRendererVersion()).isEqualTo(ContentRenderer.VERSION);
+        
+        // Reads in the html and summary views return the stored renditions
+        mockMvc.perform(get("/api/content/" + contentId)
+                .param("view", "html"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.html", is("<p>Some <strong>bold</strong> text</p>\n")))
+                .andExpect(jsonPath("$.wordCount", is(3)))
+                .andExpect(jsonPath("$.body").doesNotExist());
+        
+        mockMvc.perform(get("/api/content")
+                .param("search", "Rendered")
+                .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].excerpt", is("Some bold text")));
+        
+        // Changing the body renders the new version
+        ContentRequest updateRequest = new ContentRequest("Rendered Title", "Other _text_");
+        mockMvc.perform(put("/api/content/" + contentId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+        
+        await().atMost(Duration.ofSeconds(5))
+            .until(() -> renditionRepository.findById(contentId).map(ContentRendition::getExcerpt).orElse(""),
+                   excerpt -> excerpt.equals("Other text"));
+    }
 }
@@ -0,0 +1,69 @@
+package com.whitefallen.cms;
+
+import com.whitefallen.cms.dto.ContentRequest;
+import com.whitefallen.cms.service.ContentService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prod-profile")
+@ActiveProfiles("prod")
+class ProdProfileIntegrationTest {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ContentService contentService;
+    
+    @Test
+    void whenProdProfileActive_thenPoolAndStatementCacheAreTuned() {
+        // Then
+        HikariDataSource pool = (HikariDataSource) dataSource;
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(pool.getConnectionTimeout()).isEqualTo(2000);
+        String queryCacheSize = jdbcTemplate.queryForObject(
+            "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'QUERY_CACHE_SIZE'",
+            String.class);
+        assertThat(queryCacheSize).isEqualTo("256");
+    }
+    
+    @Test
+    void whenProdProfileActive_thenContentIdsComeFromPooledSequence() {
+        // When
+        Long first = contentService.createContent(new ContentRequest("First", "Body")).getId();
+        Long second = contentService.createContent(new ContentRequest("Second", "Body")).getId();
+        
+        // Then
+        Long increment = jdbcTemplate.queryForObject(
+            "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'CONTENT_SEQ'", Long.class);
+        assertThat(increment).isEqualTo(50);
+        assertThat(second).isEqualTo(first + 1);
+    }
+    
+    @Test
+    void whenRepositoriesUsed_thenPoolAndRepositoryMetricsAreRecorded() {
+        // When
+        contentService.createContent(new ContentRequest("Metrics", "Body"));
+        
+        // Then
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").timer()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.usage").timer()).isNotNull();
+        assertThat(meterRegistry.find("spring.data.repository.invocations")
+            .tag("repository", "ContentRepository").timers()).isNotEmpty();
+    }
+}
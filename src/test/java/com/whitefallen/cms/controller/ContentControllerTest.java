@@ -1,22 +1,46 @@
 package com.whitefallen.cms.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whitefallen.cms.config.CoalescingProperties;
+import com.whitefallen.cms.config.ConcurrencyLimitProperties;
+import com.whitefallen.cms.dto.ContentPatchRequest;
 import com.whitefallen.cms.dto.ContentRequest;
 import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.dto.ContentStatsResponse;
+import com.whitefallen.cms.dto.MultiGetRequest;
+import com.whitefallen.cms.dto.MultiGetResponse;
+import com.whitefallen.cms.dto.SizeDistribution;
+import com.whitefallen.cms.dto.TitleSuggestion;
+import com.whitefallen.cms.limiter.LoadShedder;
+import com.whitefallen.cms.model.ContentRendition;
+import com.whitefallen.cms.rendering.ContentRenditions;
+import com.whitefallen.cms.rendering.ContentView;
+import com.whitefallen.cms.repository.ContentReadView;
+import com.whitefallen.cms.search.TitleIndex;
+import com.whitefallen.cms.service.ContentReadCoalescer;
 import com.whitefallen.cms.service.ContentService;
+import com.whitefallen.cms.service.InvalidRequestException;
 import com.whitefallen.cms.service.ResourceNotFoundException;
+import com.whitefallen.cms.service.ServiceUnavailableException;
+import com.whitefallen.cms.stats.ContentStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.mockito.ArgumentCaptor;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -26,6 +50,14 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ContentController.class)
+@Import({
+    ContentListWriter.class,
+    ContentReadCoalescer.class,
+    CoalescingProperties.class,
+    LoadShedder.class,
+    ConcurrencyLimitProperties.class,
+    SimpleMeterRegistry.class
+})
 class ContentControllerTest {
     
     @Autowired
@@ -37,8 +69,19 @@ class ContentControllerTest {
     @MockBean
     private ContentService contentService;
     
+    @MockBean
+    private TitleIndex titleIndex;
+    
+    @MockBean
+    private ContentStatistics statistics;
+    
+    @MockBean
+    private ContentRenditions renditions;
+    
     private ContentResponse testContentResponse;
     
+    private ContentReadView testRow;
+    
     @BeforeEach
     void setUp() {
         testContentResponse = new ContentResponse(
@@ -48,24 +91,50 @@ class ContentControllerTest {
             LocalDateTime.now(),
             LocalDateTime.now()
         );
+        testRow = new ContentReadView(1L, "Test Title", "Test Body", null,
+            LocalDateTime.now(), LocalDateTime.now(), null, null, true, false);
     }
     
     @Test
     void whenGetAllContent_thenReturnContentList() throws Exception {
         // Given
-        List<ContentResponse> contentList = Arrays.asList(testContentResponse);
-        when(contentService.getAllContent()).thenReturn(contentList);
+        when(contentService.getAllContent()).thenReturn(List.of(testRow));
         
         // When & Then
         mockMvc.perform(get("/api/content")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].title", is("Test Title")))
                 .andExpect(jsonPath("$[0].body", is("Test Body")));
         
         verify(contentService, times(1)).getAllContent();
+        verifyNoInteractions(renditions);
+    }
+    
+    @Test
+    void whenGetAllContentInSummaryView_thenRowsAreLoadedWithoutBody() throws Exception {
+        // Given
+        ContentReadView metadata = new ContentReadView(1L, "Test Title", "hash",
+            LocalDateTime.now(), LocalDateTime.now(), null, null, true, false);
+        ContentRendition rendition = new ContentRendition(1L);
+        rendition.setExcerpt("Test Body");
+        rendition.setWordCount(2);
+        when(contentService.getAllContentWithoutBody()).thenReturn(List.of(metadata));
+        when(renditions.renditionsOf(List.of(metadata))).thenReturn(Map.of(1L, rendition));
+        
+        // When & Then
+        mockMvc.perform(get("/api/content")
+                .param("view", "summary")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].excerpt", is("Test Body")))
+                .andExpect(jsonPath("$[0].wordCount", is(2)))
+                .andExpect(jsonPath("$[0].body").doesNotExist());
+        
+        verify(contentService, never()).getAllContent();
     }
     
     @Test
@@ -84,6 +153,40 @@ class ContentControllerTest {
         verify(contentService, times(1)).getContentById(1L);
     }
     
+    @Test
+    void whenGetContentByIdInHtmlView_thenReturnRenditionInsteadOfBody() throws Exception {
+        // Given
+        ContentResponse rendered = new ContentResponse(1L, "Test Title", null, LocalDateTime.now(), LocalDateTime.now());
+        rendered.setHtml("<p>Test Body</p>\n");
+        rendered.setWordCount(2);
+        ContentResponse metadata = new ContentResponse(1L, "Test Title", null, LocalDateTime.now(), LocalDateTime.now());
+        when(contentService.getContentWithoutBodyById(1L)).thenReturn(metadata);
+        when(renditions.present(metadata, ContentView.HTML)).thenReturn(rendered);
+        
+        // When & Then
+        mockMvc.perform(get("/api/content/1")
+                .param("view", "html")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.html", is("<p>Test Body</p>\n")))
+                .andExpect(jsonPath("$.wordCount", is(2)))
+                .andExpect(jsonPath("$.body").doesNotExist());
+        
+        verify(contentService, never()).getContentById(1L);
+    }
+    
+    @Test
+    void whenGetContentWithUnknownView_thenReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/content")
+                .param("view", "pdf")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Unknown view 'pdf'; expected raw, html or summary")));
+        
+        verifyNoInteractions(contentService, renditions);
+    }
+    
     @Test
     void whenGetContentByIdNotFound_thenReturn404() throws Exception {
         // Given
@@ -98,6 +201,81 @@ class ContentControllerTest {
                 .andExpect(jsonPath("$.message", is("Content not found with id: 999")));
     }
     
+    @Test
+    void whenServiceUnavailable_thenReturn503WithRetryAfter() throws Exception {
+        // Given
+        when(contentService.getContentById(1L))
+            .thenThrow(new ServiceUnavailableException("Server is overloaded, please retry later",
+                Duration.ofMillis(1500)));
+        
+        // When & Then
+        mockMvc.perform(get("/api/content/1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status", is(503)));
+    }
+    
+    @Test
+    void whenGetContentByIds_thenReturnItemsAndMissingIds() throws Exception {
+        // Given
+        MultiGetResponse response = new MultiGetResponse(List.of(testContentResponse), List.of(5L));
+        when(contentService.getContentByIds(List.of(1L, 5L))).thenReturn(response);
+        
+        // When & Then
+        mockMvc.perform(get("/api/content")
+                .param("ids", "1,5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(5)));
+        
+        verify(contentService, never()).getAllContent();
+    }
+    
+    @Test
+    void whenMultiGetContent_thenReturnItemsAndMissingIds() throws Exception {
+        // Given
+        MultiGetResponse response = new MultiGetResponse(List.of(testContentResponse), List.of());
+        when(contentService.getContentByIds(List.of(1L))).thenReturn(response);
+        
+        // When & Then
+        mockMvc.perform(post("/api/content/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new MultiGetRequest(List.of(1L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title", is("Test Title")))
+                .andExpect(jsonPath("$.missingIds", hasSize(0)));
+    }
+    
+    @Test
+    void whenMultiGetContentWithTooManyIds_thenReturn400() throws Exception {
+        // Given
+        when(contentService.getContentByIds(any()))
+            .thenThrow(new InvalidRequestException("At most 100 ids can be requested at once"));
+        
+        // When & Then
+        mockMvc.perform(post("/api/content/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new MultiGetRequest(List.of(1L, 2L)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.message", is("At most 100 ids can be requested at once")));
+    }
+    
+    @Test
+    void whenMultiGetContentWithoutIds_thenReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/content/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new MultiGetRequest(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.ids", is("At least one id is required")));
+        
+        verify(contentService, never()).getContentByIds(any());
+    }
+    
     @Test
     void whenCreateContent_thenReturnCreatedContent() throws Exception {
         // Given
@@ -156,6 +334,35 @@ class ContentControllerTest {
         verify(contentService, times(1)).updateContent(eq(1L), any(ContentRequest.class));
     }
     
+    @Test
+    void whenPatchContent_thenOnlySuppliedFieldsArePassedOn() throws Exception {
+        // Given
+        ContentResponse patchedResponse = new ContentResponse(
+            1L,
+            "Patched Title",
+            "Test Body",
+            LocalDateTime.now(),
+            LocalDateTime.now()
+        );
+        when(contentService.patchContent(eq(1L), any(ContentPatchRequest.class))).thenReturn(patchedResponse);
+        
+        // When & Then
+        mockMvc.perform(patch("/api/content/1")
+                .contentType("application/merge-patch+json")
+                .content("{\"title\":\"Patched Title\",\"publishAt\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Patched Title")))
+                .andExpect(jsonPath("$.body", is("Test Body")));
+        
+        ArgumentCaptor<ContentPatchRequest> captor = ArgumentCaptor.forClass(ContentPatchRequest.class);
+        verify(contentService).patchContent(eq(1L), captor.capture());
+        assertThat(captor.getValue().hasTitle()).isTrue();
+        assertThat(captor.getValue().hasPublishAt()).isTrue();
+        assertThat(captor.getValue().getPublishAt()).isNull();
+        assertThat(captor.getValue().hasBody()).isFalse();
+        assertThat(captor.getValue().hasUnpublishAt()).isFalse();
+    }
+    
     @Test
     void whenDeleteContent_thenReturnNoContent() throws Exception {
         // Given
@@ -172,8 +379,7 @@ class ContentControllerTest {
     @Test
     void whenSearchContent_thenReturnMatchingContent() throws Exception {
         // Given
-        List<ContentResponse> contentList = Arrays.asList(testContentResponse);
-        when(contentService.searchContent("test")).thenReturn(contentList);
+        when(contentService.searchContent("test")).thenReturn(List.of(testRow));
         
         // When & Then
         mockMvc.perform(get("/api/content")
@@ -186,4 +392,76 @@ class ContentControllerTest {
         verify(contentService, times(1)).searchContent("test");
         verify(contentService, never()).getAllContent();
     }
+    
+    @Test
+    void whenSuggestTitles_thenReturnSuggestions() throws Exception {
+        // Given
+        when(titleIndex.suggest("spr", 5, 1))
+            .thenReturn(List.of(new TitleSuggestion(1L, "Spring Boot Tutorial")));
+        
+        // When & Then
+        mockMvc.perform(get("/api/content/suggest")
+                .param("q", "spr")
+                .param("limit", "5")
+                .param("fuzziness", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].title", is("Spring Boot Tutorial")));
+        
+        verify(contentService, never()).searchContent(any());
+    }
+    
+    @Test
+    void whenSuggestTitlesWithOutOfRangeParams_thenClampThem() throws Exception {
+        // Given
+        when(titleIndex.suggest("spr", 50, 2)).thenReturn(List.of());
+        
+        // When & Then
+        mockMvc.perform(get("/api/content/suggest")
+                .param("q", "spr")
+                .param("limit", "1000")
+                .param("fuzziness", "9")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        
+        verify(titleIndex, times(1)).suggest("spr", 50, 2);
+    }
+    
+    @Test
+    void whenGetStatistics_thenReturnCountersWithoutQueryingContent() throws Exception {
+        // Given
+        LocalDate today = LocalDate.of(2024, 1, 15);
+        SizeDistribution lengths = new SizeDistribution(3, 42.0, Map.of("16-63", 3L));
+        ContentStatsResponse stats = new ContentStatsResponse(
+            3, Map.of(today, 2L), Map.of(today, 3L), lengths, lengths, LocalDateTime.now());
+        when(statistics.snapshot(7)).thenReturn(stats);
+        
+        // When & Then
+        mockMvc.perform(get("/api/content/stats")
+                .param("days", "7")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCount", is(3)))
+                .andExpect(jsonPath("$.createdPerDay['2024-01-15']", is(2)))
+                .andExpect(jsonPath("$.bodyLength.average", is(42.0)));
+        
+        verifyNoInteractions(contentService);
+    }
+    
+    @Test
+    void whenGetStatisticsWithOutOfRangeDays_thenClampThem() throws Exception {
+        // Given
+        when(statistics.snapshot(366)).thenReturn(new ContentStatsResponse());
+        
+        // When & Then
+        mockMvc.perform(get("/api/content/stats")
+                .param("days", "10000")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        
+        verify(statistics, times(1)).snapshot(366);
+    }
 }
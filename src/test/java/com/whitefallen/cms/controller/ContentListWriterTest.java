@@ -0,0 +1,127 @@
+package com.whitefallen.cms.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.model.ContentRendition;
+import com.whitefallen.cms.rendering.ContentView;
+import com.whitefallen.cms.repository.ContentReadView;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentListWriterTest {
+    
+    // Configured as Spring Boot configures the application's mapper
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+        .findAndAddModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    
+    private final ContentListWriter writer = new ContentListWriter(objectMapper);
+    
+    private final LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30, 5, 120_000_000);
+    private final LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 16, 8, 0);
+    private final LocalDateTime unpublishAt = LocalDateTime.of(2024, 2, 1, 0, 0);
+    
+    private final ContentReadView scheduled = new ContentReadView(1L, "First \"quoted\"", "Line one\nline two",
+        "hash-1", createdAt, updatedAt, createdAt, unpublishAt, true, false);
+    private final ContentReadView unscheduled = new ContentReadView(2L, "Second", "Body", "hash-2",
+        createdAt, updatedAt, null, null, false, false);
+    
+    @Test
+    void whenWritingRawView_thenOutputMatchesResponses() throws IOException {
+        // Given
+        List<ContentResponse> expected = List.of(responseOf(scheduled, true), responseOf(unscheduled, true));
+        
+        // When
+        String json = write(List.of(scheduled, unscheduled), ContentView.RAW, Map.of());
+        
+        // Then
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(expected));
+    }
+    
+    @Test
+    void whenWritingHtmlView_thenOutputMatchesResponses() throws IOException {
+        // Given
+        ContentRendition rendition = renditionOf(scheduled);
+        ContentResponse response = responseOf(scheduled, false);
+        response.setHtml(rendition.getHtml());
+        response.setWordCount(rendition.getWordCount());
+        
+        // When
+        String json = write(List.of(scheduled), ContentView.HTML, Map.of(1L, rendition));
+        
+        // Then
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(List.of(response)));
+    }
+    
+    @Test
+    void whenWritingSummaryView_thenOutputMatchesResponses() throws IOException {
+        // Given
+        ContentRendition rendition = renditionOf(scheduled);
+        ContentResponse response = responseOf(scheduled, false);
+        response.setExcerpt(rendition.getExcerpt());
+        response.setWordCount(rendition.getWordCount());
+        
+        // When
+        String json = write(List.of(scheduled), ContentView.SUMMARY, Map.of(1L, rendition));
+        
+        // Then
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(List.of(response)));
+    }
+    
+    @Test
+    void whenRowHasNoRendition_thenItIsMarkedPending() throws IOException {
+        // Given
+        ContentRendition rendition = renditionOf(scheduled);
+        ContentResponse rendered = responseOf(scheduled, false);
+        rendered.setHtml(rendition.getHtml());
+        rendered.setWordCount(rendition.getWordCount());
+        ContentResponse pending = responseOf(unscheduled, false);
+        pending.setRenderPending(true);
+        
+        // When
+        String json = write(List.of(scheduled, unscheduled), ContentView.HTML, Map.of(1L, rendition));
+        
+        // Then
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(List.of(rendered, pending)));
+    }
+    
+    @Test
+    void whenNoRows_thenEmptyArrayIsWritten() throws IOException {
+        assertThat(write(List.of(), ContentView.RAW, Map.of())).isEqualTo("[]");
+    }
+    
+    private String write(List<ContentReadView> rows, ContentView view,
+                         Map<Long, ContentRendition> renditions) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(rows, view, renditions, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    private static ContentResponse responseOf(ContentReadView row, boolean withBody) {
+        ContentResponse response = new ContentResponse(row.getId(), row.getTitle(),
+            withBody ? row.getBody() : null, row.getCreatedAt(), row.getUpdatedAt());
+        response.setPublishAt(row.getPublishAt());
+        response.setUnpublishAt(row.getUnpublishAt());
+        response.setVisible(row.isVisible());
+        return response;
+    }
+    
+    private static ContentRendition renditionOf(ContentReadView row) {
+        ContentRendition rendition = new ContentRendition(row.getId());
+        rendition.setHtml("<p>" + row.getBody() + "</p>\n");
+        rendition.setExcerpt(row.getBody());
+        rendition.setWordCount(4);
+        return rendition;
+    }
+}
@@ -0,0 +1,35 @@
+package com.whitefallen.cms.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsoTimestampBufferTest {
+    
+    private final IsoTimestampBuffer buffer = new IsoTimestampBuffer();
+    
+    @Test
+    void whenFormat_thenMatchIsoLocalDateTime() {
+        // Given
+        List<LocalDateTime> values = List.of(
+            LocalDateTime.of(2024, 1, 15, 10, 30),
+            LocalDateTime.of(2024, 1, 15, 10, 30, 5),
+            LocalDateTime.of(2024, 12, 31, 23, 59, 59, 120_000_000),
+            LocalDateTime.of(2024, 2, 29, 0, 0, 0, 123_456_000),
+            LocalDateTime.of(2024, 6, 1, 8, 0, 0, 1),
+            LocalDateTime.of(987, 3, 4, 5, 6, 7),
+            LocalDateTime.of(12345, 1, 1, 0, 0)
+        );
+        
+        // When & Then
+        for (LocalDateTime value : values) {
+            char[] chars = buffer.format(value);
+            assertThat(new String(chars, 0, buffer.length()))
+                .isEqualTo(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+}
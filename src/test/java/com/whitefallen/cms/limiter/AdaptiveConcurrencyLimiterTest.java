@@ -0,0 +1,83 @@
+package com.whitefallen.cms.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+    
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+    
+    @Test
+    void whenLimitReached_thenRejectAcquire() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, THRESHOLD, 0.5);
+        
+        // When & Then
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+    
+    @Test
+    void whenFastResponsesUnderLoad_thenLimitGrowsAdditively() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, THRESHOLD, 0.5);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        
+        // When
+        limiter.release(FAST, false);
+        
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+    
+    @Test
+    void whenFastResponsesWhileIdle_thenLimitStaysPut() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, THRESHOLD, 0.5);
+        limiter.tryAcquire();
+        
+        // When
+        limiter.release(FAST, false);
+        
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+    
+    @Test
+    void whenSlowOrFailedResponses_thenLimitBacksOffToMinimum() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, THRESHOLD, 0.5);
+        
+        // When
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        int afterSlow = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        int afterFailure = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        
+        // Then
+        assertThat(afterSlow).isEqualTo(4);
+        assertThat(afterFailure).isEqualTo(2);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+    
+    @Test
+    void whenInvalidLimits_thenThrowException() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 10, 2, THRESHOLD, 0.5))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 1, 10, THRESHOLD, 1.5))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
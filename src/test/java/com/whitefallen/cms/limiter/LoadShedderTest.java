@@ -0,0 +1,85 @@
+package com.whitefallen.cms.limiter;
+
+import com.whitefallen.cms.config.ConcurrencyLimitProperties;
+import com.whitefallen.cms.service.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadShedderTest {
+    
+    private ConcurrencyLimitProperties properties;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setMaxTotalConcurrency(10);
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+    
+    @Test
+    void whenServerSaturated_thenLowerPriorityClassesAreShedFirst() {
+        // Given
+        LoadShedder loadShedder = new LoadShedder(properties, meterRegistry);
+        List<LoadShedder.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            permits.add(loadShedder.acquire(EndpointClass.READ));
+        }
+        
+        // When & Then
+        assertThatThrownBy(() -> loadShedder.acquire(EndpointClass.SEARCH))
+            .isInstanceOf(ServiceUnavailableException.class)
+            .satisfies(ex -> assertThat(((ServiceUnavailableException) ex).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(2)));
+        permits.add(loadShedder.acquire(EndpointClass.WRITE));
+        assertThatThrownBy(() -> loadShedder.acquire(EndpointClass.WRITE))
+            .isInstanceOf(ServiceUnavailableException.class);
+        permits.add(loadShedder.acquire(EndpointClass.READ));
+        assertThatThrownBy(() -> loadShedder.acquire(EndpointClass.READ))
+            .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get("cms.limiter.rejected").tag("class", "search").counter().count())
+            .isEqualTo(1.0);
+    }
+    
+    @Test
+    void whenPermitReleased_thenSlotIsReturned() {
+        // Given
+        properties.getWrites().setInitialLimit(1);
+        properties.getWrites().setMinLimit(1);
+        LoadShedder loadShedder = new LoadShedder(properties, meterRegistry);
+        LoadShedder.Permit permit = loadShedder.acquire(EndpointClass.WRITE);
+        assertThatThrownBy(() -> loadShedder.acquire(EndpointClass.WRITE))
+            .isInstanceOf(ServiceUnavailableException.class);
+        
+        // When
+        permit.release(false);
+        permit.release(false);
+        
+        // Then
+        assertThat(loadShedder.getLimiter(EndpointClass.WRITE).getInFlight()).isZero();
+        assertThat(loadShedder.acquire(EndpointClass.WRITE)).isNotNull();
+    }
+    
+    @Test
+    void whenDisabled_thenNothingIsShed() {
+        // Given
+        properties.setEnabled(false);
+        properties.setMaxTotalConcurrency(1);
+        LoadShedder loadShedder = new LoadShedder(properties, meterRegistry);
+        
+        // When & Then
+        for (int i = 0; i < 5; i++) {
+            assertThat(loadShedder.acquire(EndpointClass.SEARCH)).isNotNull();
+        }
+    }
+}
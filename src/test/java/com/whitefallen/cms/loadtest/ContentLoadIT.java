@@ -0,0 +1,227 @@
+package com.whitefallen.cms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whitefallen.cms.loadtest.OpenModelLoadGenerator.LoadResult;
+import com.whitefallen.cms.loadtest.OpenModelLoadGenerator.Operation;
+import com.whitefallen.cms.loadtest.OpenModelLoadGenerator.Workload;
+import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.search.TitleIndex;
+import com.whitefallen.cms.service.ContentBodyStore;
+import com.whitefallen.cms.stats.ContentStatistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives fixed-rate workloads against {@code /api/content} on a seeded database and
+ * fails when latency or error rate regress against
+ * {@code src/test/resources/loadtest/baseline.json}. Runs with the {@code perf} profile:
+ * <pre>
+ * mvn verify -Pperf
+ * </pre>
+ * Tune with {@code -Dcms.loadtest.dataset}, {@code -Dcms.loadtest.body-size},
+ * {@code -Dcms.loadtest.duration} and {@code -Dcms.loadtest.warmup} (seconds), and
+ * {@code -Dcms.loadtest.tolerance} to override the baseline's tolerance. Latency
+ * distributions and a candidate baseline are written to {@code target/loadtest}.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest",
+        "logging.level.com.whitefallen.cms=WARN"
+    })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContentLoadIT {
+    
+    private static final int DATASET = Integer.getInteger("cms.loadtest.dataset", 1000);
+    private static final int BODY_SIZE = Integer.getInteger("cms.loadtest.body-size", 1024);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("cms.loadtest.duration", 20));
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("cms.loadtest.warmup", 30));
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Path REPORTS = Path.of("target", "loadtest");
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private ContentRepository contentRepository;
+    
+    @Autowired
+    private ContentBodyStore bodyStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private TitleIndex titleIndex;
+    
+    @Autowired
+    private ContentStatistics contentStatistics;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final List<Long> seededIds = new ArrayList<>();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final Map<String, LoadResult> results = new LinkedHashMap<>();
+    private LoadBaseline baseline;
+    private OpenModelLoadGenerator generator;
+    private String baseUrl;
+    
+    @BeforeAll
+    void seed() throws IOException {
+        String body = "x".repeat(BODY_SIZE);
+        for (int from = 1; from <= DATASET; from += 500) {
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Content> batch = new ArrayList<>();
+                for (int i = first; i < first + 500 && i <= DATASET; i++) {
+                    batch.add(new Content("Load test article " + i, bodyStore.acquire(i + " " + body)));
+                }
+                contentRepository.saveAll(batch).forEach(content -> seededIds.add(content.getId()));
+            });
+        }
+        // Seeding goes around the service, so bring the derived read models up to date
+        titleIndex.rebuild();
+        contentStatistics.reconcile();
+        
+        baseline = LoadBaseline.load("/loadtest/baseline.json");
+        // HTTP/1.1 so that concurrent requests spread over connections and Tomcat threads
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        generator = new OpenModelLoadGenerator(client, REQUEST_TIMEOUT);
+        baseUrl = "http://localhost:" + port + "/api/content";
+        Files.createDirectories(REPORTS);
+    }
+    
+    Stream<Scenario> scenarios() {
+        return Stream.of(
+            new Scenario("read-heavy", 120, new Workload(List.of(
+                new Operation("get", 85, random -> get("/" + seededId(random))),
+                new Operation("search", 10, random -> get("?search=article+" + random.nextInt(DATASET))),
+                new Operation("multi-get", 5, random -> get("?ids=" + seededId(random) + "," + seededId(random)))))),
+            new Scenario("mixed-crud", 80, new Workload(List.of(
+                new Operation("get", 50, random -> get("/" + seededId(random))),
+                new Operation("search", 15, random -> get("?search=article+" + random.nextInt(DATASET))),
+                new Operation("create", 15, random -> send("POST", "", random), this::rememberCreated),
+                new Operation("update", 15, random -> send("PUT", "/" + seededId(random), random)),
+                new Operation("delete", 5, this::deleteCreated)))));
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("scenarios")
+    void scenarioStaysWithinBaseline(Scenario scenario) throws Exception {
+        // Given a warm JIT and connection pool; a cold server cannot keep up with the rate
+        generator.run(scenario.workload(), scenario.rate(), WARMUP);
+        
+        // When
+        LoadResult result = generator.run(scenario.workload(), scenario.rate(), DURATION);
+        results.put(scenario.name(), result);
+        report(scenario, result);
+        
+        // Then
+        double tolerance = Double.parseDouble(
+            System.getProperty("cms.loadtest.tolerance", String.valueOf(baseline.tolerance())));
+        assertThat(baseline.regressions(scenario.name(), result, tolerance))
+            .as("Regressions against loadtest/baseline.json")
+            .isEmpty();
+    }
+    
+    @AfterAll
+    void writeCandidateBaseline() throws IOException {
+        if (!results.isEmpty()) {
+            baseline.writeCandidate(REPORTS.resolve("baseline-candidate.json"), results);
+        }
+    }
+    
+    private void report(Scenario scenario, LoadResult result) throws IOException {
+        System.out.printf("%-12s %6d req/s target %8.1f achieved %8d requests %6d errors  p50 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms%n",
+            scenario.name(), scenario.rate(), result.achievedRate(), result.requests(), result.errors(),
+            result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(99.9),
+            result.latencies().getMaxValue() / 1e6);
+        // HdrHistogram percentile distribution, in milliseconds, overall and per operation
+        try (PrintStream out = new PrintStream(Files.newOutputStream(REPORTS.resolve(scenario.name() + ".hgrm")))) {
+            out.println("# all operations");
+            result.latencies().outputPercentileDistribution(out, 1e6);
+            result.byOperation().forEach((operation, histogram) -> {
+                out.println();
+                out.println("# " + operation);
+                histogram.outputPercentileDistribution(out, 1e6);
+            });
+        }
+    }
+    
+    private Long seededId(Random random) {
+        return seededIds.get(random.nextInt(seededIds.size()));
+    }
+    
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+    
+    private HttpRequest send(String method, String path, Random random) {
+        String json = "{\"title\":\"Load test article " + random.nextInt(DATASET)
+            + "\",\"body\":\"Revised " + random.nextInt() + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+    
+    // Deletes only content created during the run so that reads keep hitting live rows
+    private HttpRequest deleteCreated(Random random) {
+        Long id = createdIds.poll();
+        if (id == null) {
+            return get("/" + seededId(random));
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).timeout(REQUEST_TIMEOUT).DELETE().build();
+    }
+    
+    private void rememberCreated(String body) {
+        try {
+            createdIds.add(objectMapper.readTree(body).get("id").asLong());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unexpected create response: " + body, ex);
+        }
+    }
+    
+    /**
+     * A workload and the fixed arrival rate, in requests per second, it is driven at.
+     */
+    record Scenario(String name, int rate, Workload workload) {
+        
+        @Override
+        public String toString() {
+            return name + " @ " + rate + " req/s";
+        }
+    }
+}
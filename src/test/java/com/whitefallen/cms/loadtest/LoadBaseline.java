@@ -0,0 +1,78 @@
+package com.whitefallen.cms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.whitefallen.cms.loadtest.OpenModelLoadGenerator.LoadResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency and error-rate limits per load scenario, read from
+ * {@code src/test/resources/loadtest/baseline.json}. A scenario regresses when a
+ * percentile exceeds its baseline by more than the relative tolerance plus a fixed
+ * slack, or when its error rate is above the allowed maximum. The slack keeps
+ * millisecond-scale percentiles from failing on scheduling noise.
+ */
+record LoadBaseline(double tolerance, double slackMillis, Map<String, Limits> scenarios) {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    
+    static LoadBaseline load(String resource) throws IOException {
+        try (InputStream in = LoadBaseline.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Baseline " + resource + " not found on the test classpath");
+            }
+            return MAPPER.readValue(in, LoadBaseline.class);
+        }
+    }
+    
+    /**
+     * Describes every limit the result breaks; empty when the scenario is within its baseline.
+     */
+    List<String> regressions(String scenario, LoadResult result, double tolerance) {
+        Limits limits = scenarios.get(scenario);
+        List<String> regressions = new ArrayList<>();
+        if (limits == null) {
+            regressions.add(scenario + ": no baseline recorded");
+            return regressions;
+        }
+        check(regressions, scenario, "p50", result.percentileMillis(50), limits.p50Millis(), tolerance);
+        check(regressions, scenario, "p99", result.percentileMillis(99), limits.p99Millis(), tolerance);
+        if (result.errorRate() > limits.maxErrorRate()) {
+            regressions.add(String.format("%s: error rate %.4f exceeds %.4f",
+                scenario, result.errorRate(), limits.maxErrorRate()));
+        }
+        return regressions;
+    }
+    
+    private void check(List<String> regressions, String scenario, String percentile,
+                              double measured, double baseline, double tolerance) {
+        double limit = baseline * (1 + tolerance) + slackMillis;
+        if (measured > limit) {
+            regressions.add(String.format("%s: %s %.2f ms exceeds baseline %.2f ms (+%.0f%% +%.0f ms = %.2f ms)",
+                scenario, percentile, measured, baseline, tolerance * 100, slackMillis, limit));
+        }
+    }
+    
+    /**
+     * Writes the measured results in baseline format, ready to be copied over the
+     * stored baseline when a slowdown is intended or the reference machine changes.
+     */
+    void writeCandidate(Path file, Map<String, LoadResult> results) throws IOException {
+        Map<String, Limits> scenarios = new LinkedHashMap<>();
+        results.forEach((name, result) -> scenarios.put(name, new Limits(
+            Math.ceil(result.percentileMillis(50) * 100) / 100,
+            Math.ceil(result.percentileMillis(99) * 100) / 100,
+            0.0)));
+        MAPPER.writeValue(file.toFile(), new LoadBaseline(tolerance, slackMillis, scenarios));
+    }
+    
+    record Limits(double p50Millis, double p99Millis, double maxErrorRate) {
+    }
+}
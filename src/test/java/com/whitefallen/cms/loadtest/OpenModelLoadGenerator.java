@@ -0,0 +1,149 @@
+package com.whitefallen.cms.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Sends requests at a fixed arrival rate regardless of how fast the server answers
+ * (open model). Latency is measured from the time a request was scheduled to go out,
+ * not from when it was actually sent, so a stalled server or a late dispatcher shows
+ * up in the recorded latencies instead of silently lowering the request rate
+ * (coordinated omission).
+ */
+class OpenModelLoadGenerator {
+    
+    // Highest latency the histograms can hold; anything slower counts as an error anyway
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    
+    OpenModelLoadGenerator(HttpClient client, Duration requestTimeout) {
+        this.client = client;
+        this.requestTimeout = requestTimeout;
+    }
+    
+    /**
+     * Runs the workload at {@code ratePerSecond} for {@code duration} and waits for
+     * the responses still in flight at the end.
+     */
+    LoadResult run(Workload workload, double ratePerSecond, Duration duration) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long requests = duration.toNanos() / intervalNanos;
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        for (Operation operation : workload.operations()) {
+            recorders.put(operation.name(), new Recorder(MAX_TRACKABLE_NANOS, 3));
+        }
+        AtomicLong errors = new AtomicLong();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long intended = start + i * intervalNanos;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = workload.pick(ThreadLocalRandom.current());
+            Recorder recorder = recorders.get(operation.name());
+            HttpRequest request = operation.request(ThreadLocalRandom.current());
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((response, failure) -> {
+                    recorder.recordValue(Math.min(System.nanoTime() - intended, MAX_TRACKABLE_NANOS));
+                    if (failure != null || response.statusCode() >= 400) {
+                        errors.incrementAndGet();
+                    } else {
+                        operation.onSuccess(response.body());
+                    }
+                }));
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException ex) {
+            // Failed and timed-out requests are already counted as errors
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        Map<String, Histogram> byOperation = new LinkedHashMap<>();
+        Histogram total = new Histogram(MAX_TRACKABLE_NANOS, 3);
+        recorders.forEach((name, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            byOperation.put(name, histogram);
+            total.add(histogram);
+        });
+        return new LoadResult(total, byOperation, requests, errors.get(), requests / seconds);
+    }
+    
+    /**
+     * One kind of request in a workload. {@code onSuccess} receives the response body,
+     * for example to remember the id of created content.
+     */
+    record Operation(String name, int weight, Function<Random, HttpRequest> requests, Consumer<String> onSuccess) {
+        
+        Operation(String name, int weight, Function<Random, HttpRequest> requests) {
+            this(name, weight, requests, body -> { });
+        }
+        
+        HttpRequest request(Random random) {
+            return requests.apply(random);
+        }
+        
+        void onSuccess(String body) {
+            onSuccess.accept(body);
+        }
+    }
+    
+    /**
+     * A weighted mix of operations.
+     */
+    record Workload(List<Operation> operations) {
+        
+        Operation pick(Random random) {
+            int total = operations.stream().mapToInt(Operation::weight).sum();
+            int roll = random.nextInt(total);
+            for (Operation operation : operations) {
+                roll -= operation.weight();
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException("Workload has no operations");
+        }
+    }
+    
+    /**
+     * Latencies in nanoseconds, overall and per operation.
+     */
+    record LoadResult(Histogram latencies, Map<String, Histogram> byOperation,
+                      long requests, long errors, double achievedRate) {
+        
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+        
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
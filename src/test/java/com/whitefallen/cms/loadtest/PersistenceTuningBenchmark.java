@@ -0,0 +1,179 @@
+package com.whitefallen.cms.loadtest;
+
+import com.whitefallen.cms.CmsApplication;
+import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.service.ContentBodyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the default persistence settings with the {@code prod} profile (pool sizing,
+ * statement cache, Hibernate batching and plan cache) under a concurrent mixed workload:
+ * reads by id, searches and updates over HTTP. Each scenario boots the application on a
+ * random port with its own in-memory database; the seed is inserted in one transaction,
+ * which shows the effect of JDBC batching.
+ *
+ * Not part of the regular test run. Start it explicitly:
+ * <pre>
+ * mvn test -Dtest=PersistenceTuningBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ * Tune with {@code -Dcms.benchmark.dataset}, {@code -Dcms.benchmark.requests} and
+ * {@code -Dcms.benchmark.concurrency}. Pool wait is the Hikari connection acquire time.
+ */
+class PersistenceTuningBenchmark {
+    
+    private static final int DATASET = Integer.getInteger("cms.benchmark.dataset", 2000);
+    private static final int REQUESTS = Integer.getInteger("cms.benchmark.requests", 4000);
+    private static final int CONCURRENCY = Integer.getInteger("cms.benchmark.concurrency", 64);
+    
+    @Test
+    void comparePersistenceSettings() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-10s %10s %10s %10s %10s %14s %14s %10s",
+            "scenario", "seed ms", "req/s", "p50 ms", "p99 ms", "pool wait ms", "pool max ms", "timeouts"));
+        report.add(run("defaults", null));
+        report.add(run("prod", "prod"));
+        System.out.println(String.join(System.lineSeparator(), report));
+    }
+    
+    private String run(String name, String profile) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:persistence-" + System.nanoTime());
+        properties.put("cms.limiter.enabled", "false");
+        properties.put("cms.coalescing.enabled", "false");
+        properties.put("logging.level.com.whitefallen.cms", "WARN");
+        
+        if (profile != null) {
+            properties.put("spring.profiles.active", profile);
+        }
+        // Passed as command-line arguments: builder properties are only defaults and lose to application.yml
+        String[] args = properties.entrySet().stream()
+            .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+            .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CmsApplication.class).run(args)) {
+            long seedMillis = seed(context);
+            List<Long> ids = context.getBean(ContentRepository.class).findAll().stream()
+                .map(Content::getId)
+                .toList();
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            // HTTP/1.1 so that requests spread over many connections and Tomcat threads
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            String baseUrl = "http://localhost:" + port + "/api/content";
+            
+            // Warm up the JIT, the pool and the plan cache before measuring
+            load(client, baseUrl, ids, REQUESTS / 4);
+            MeterRegistry meters = context.getBean(MeterRegistry.class);
+            Timer acquire = meters.get("hikaricp.connections.acquire").timer();
+            long acquiredBefore = acquire.count();
+            double waitedBefore = acquire.totalTime(TimeUnit.MILLISECONDS);
+            
+            long start = System.nanoTime();
+            long[] latencies = load(client, baseUrl, ids, REQUESTS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            
+            long acquired = acquire.count() - acquiredBefore;
+            double waited = acquire.totalTime(TimeUnit.MILLISECONDS) - waitedBefore;
+            Counter timeouts = meters.find("hikaricp.connections.timeout").counter();
+            Arrays.sort(latencies);
+            return String.format("%-10s %10d %10.0f %10.2f %10.2f %14.3f %14.2f %10.0f",
+                name, seedMillis, REQUESTS / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                acquired == 0 ? 0 : waited / acquired, acquire.max(TimeUnit.MILLISECONDS),
+                timeouts == null ? 0 : timeouts.count());
+        }
+    }
+    
+    private long seed(ConfigurableApplicationContext context) {
+        ContentRepository repository = context.getBean(ContentRepository.class);
+        ContentBodyStore bodyStore = context.getBean(ContentBodyStore.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Content> items = new ArrayList<>();
+            for (int i = 1; i <= DATASET; i++) {
+                items.add(new Content("Benchmark article " + i, bodyStore.acquire("Body of benchmark article " + i)));
+            }
+            repository.saveAll(items);
+        });
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+    
+    // 60% reads by id, 20% searches, 20% updates
+    private long[] load(HttpClient client, String baseUrl, List<Long> ids, int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        long[] latencies = new long[requests];
+        AtomicLong failures = new AtomicLong();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                int slot = i;
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Long id = ids.get(random.nextInt(ids.size()));
+                    int kind = random.nextInt(10);
+                    HttpRequest request;
+                    if (kind < 6) {
+                        request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build();
+                    } else if (kind < 8) {
+                        request = HttpRequest.newBuilder(URI.create(baseUrl + "?search=article+" + random.nextInt(100)))
+                            .GET().build();
+                    } else {
+                        String json = "{\"title\":\"Benchmark article " + id + "\",\"body\":\"Revised " + random.nextInt() + "\"}";
+                        request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                            .header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString(json))
+                            .build();
+                    }
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies[slot] = System.nanoTime() - start;
+                    if (response.statusCode() != 200) {
+                        failures.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        if (failures.get() > 0) {
+            System.out.println(failures.get() + " requests failed");
+        }
+        return latencies;
+    }
+    
+    private static double percentile(long[] sortedLatencies, double p) {
+        int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,158 @@
+package com.whitefallen.cms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whitefallen.cms.CmsApplication;
+import com.whitefallen.cms.controller.ContentListWriter;
+import com.whitefallen.cms.dto.ContentRequest;
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.rendering.ContentView;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.service.ContentService;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures bytes allocated per request for listing all content, comparing the path that
+ * {@code GET /api/content} uses (flat rows written by {@link ContentListWriter}, no persistence
+ * context and no response object per row) with loading managed Content entities, copying them
+ * into responses and serializing those with the application's ObjectMapper. Uses JMH with the
+ * GC profiler; the figure to compare is {@code gc.alloc.rate.norm}, in bytes per operation.
+ *
+ * Not part of the regular test run. Start it explicitly:
+ * <pre>
+ * mvn test -Dtest=ReadAllocationBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ * Tune the number of rows with {@code -Dcms.benchmark.dataset} and the body size with
+ * {@code -Dcms.benchmark.bodySize}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadAllocationBenchmark {
+    
+    @Param("200")
+    public int dataset;
+    
+    @Param("1024")
+    public int bodySize;
+    
+    private ConfigurableApplicationContext context;
+    private ContentService contentService;
+    private ContentRepository contentRepository;
+    private TransactionTemplate transactionTemplate;
+    private ObjectMapper objectMapper;
+    private ContentListWriter listWriter;
+    private OutputStream sink;
+    
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        // Command-line arguments, since builder properties are only defaults and lose to application.yml
+        context = new SpringApplicationBuilder(CmsApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:alloc-" + UUID.randomUUID(),
+                "--cms.purge.enabled=false",
+                "--logging.level.root=WARN");
+        contentService = context.getBean(ContentService.class);
+        contentRepository = context.getBean(ContentRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        listWriter = context.getBean(ContentListWriter.class);
+        for (int i = 0; i < dataset; i++) {
+            // Distinct bodies so that deduplication does not shrink the dataset
+            String body = i + " " + "x".repeat(bodySize);
+            contentService.createContent(new ContentRequest("Benchmark item " + i, body));
+        }
+        sink = new BlackholeOutputStream(blackhole);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public void rowWriter() throws IOException {
+        listWriter.write(contentService.getAllContent(), ContentView.RAW, Map.of(), sink);
+    }
+    
+    @Benchmark
+    public void entityAndDto() throws IOException {
+        objectMapper.writeValue(sink, transactionTemplate.execute(status ->
+            contentRepository.findAll().stream().map(ContentResponse::fromContent).toList()));
+    }
+    
+    @Test
+    void compareAllocationsPerRequest() throws Exception {
+        Options options = new OptionsBuilder()
+            .include(ReadAllocationBenchmark.class.getName() + "\\.")
+            .param("dataset", String.valueOf(Integer.getInteger("cms.benchmark.dataset", 200)))
+            .param("bodySize", String.valueOf(Integer.getInteger("cms.benchmark.bodySize", 1024)))
+            .addProfiler(GCProfiler.class)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+        
+        System.out.printf("%n%-16s %14s %18s%n", "path", "us/op", "bytes/op");
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            Result<?> allocated = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            System.out.printf("%-16s %14.1f %18.0f%n",
+                name.substring(name.lastIndexOf('.') + 1),
+                result.getPrimaryResult().getScore(),
+                allocated == null ? Double.NaN : allocated.getScore());
+        }
+    }
+    
+    // Discards output without allocating, while keeping the writes observable to JIT
+    private static class BlackholeOutputStream extends OutputStream {
+        
+        private final Blackhole blackhole;
+        
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+        
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
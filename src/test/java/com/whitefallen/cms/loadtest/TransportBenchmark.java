@@ -0,0 +1,171 @@
+package com.whitefallen.cms.loadtest;
+
+import com.whitefallen.cms.CmsApplication;
+import com.whitefallen.cms.dto.ContentRequest;
+import com.whitefallen.cms.service.ContentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares bytes on the wire and latency across transport settings (compression on/off,
+ * compression threshold, HTTP/1.1 vs h2c). Each scenario boots the application on a random
+ * port with its own in-memory database and seeded dataset.
+ *
+ * Not part of the regular test run. Start it explicitly:
+ * <pre>
+ * mvn test -Dtest=TransportBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ * Tune with {@code -Dcms.benchmark.dataset}, {@code -Dcms.benchmark.requests},
+ * {@code -Dcms.benchmark.concurrency} and {@code -Dcms.benchmark.bodySize}.
+ * Byte counts are response bodies as received, i.e. after compression, excluding headers.
+ */
+class TransportBenchmark {
+    
+    private static final int DATASET = Integer.getInteger("cms.benchmark.dataset", 200);
+    private static final int REQUESTS = Integer.getInteger("cms.benchmark.requests", 400);
+    private static final int CONCURRENCY = Integer.getInteger("cms.benchmark.concurrency", 8);
+    private static final int BODY_SIZE = Integer.getInteger("cms.benchmark.bodySize", 2048);
+    
+    @Test
+    void compareTransportSettings() throws Exception {
+        List<Scenario> scenarios = List.of(
+            new Scenario("http1.1 identity", HttpClient.Version.HTTP_1_1, false, Map.of(
+                "server.compression.enabled", "false",
+                "server.http2.enabled", "false")),
+            new Scenario("http1.1 gzip >=256B", HttpClient.Version.HTTP_1_1, true, Map.of(
+                "server.compression.min-response-size", "256B",
+                "server.http2.enabled", "false")),
+            new Scenario("http1.1 gzip >=2KB", HttpClient.Version.HTTP_1_1, true, Map.of(
+                "server.compression.min-response-size", "2KB",
+                "server.http2.enabled", "false")),
+            new Scenario("h2c identity", HttpClient.Version.HTTP_2, false, Map.of(
+                "server.compression.enabled", "false")),
+            new Scenario("h2c gzip >=2KB", HttpClient.Version.HTTP_2, true, Map.of(
+                "server.compression.min-response-size", "2KB"))
+        );
+        
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-22s %-10s %14s %12s %10s %10s %10s",
+            "scenario", "endpoint", "bytes/req", "total MB", "p50 ms", "p99 ms", "max ms"));
+        for (Scenario scenario : scenarios) {
+            for (Result result : run(scenario)) {
+                report.add(result.format());
+            }
+        }
+        System.out.println(String.join(System.lineSeparator(), report));
+    }
+    
+    private List<Result> run(Scenario scenario) throws Exception {
+        Map<String, Object> properties = new HashMap<>(scenario.properties());
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:transport-" + System.nanoTime());
+        properties.put("cms.limiter.enabled", "false");
+        properties.put("logging.level.com.whitefallen.cms", "WARN");
+        
+        // Passed as command-line arguments: builder properties are only defaults and lose to application.yml
+        String[] args = properties.entrySet().stream()
+            .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+            .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CmsApplication.class)
+                .run(args)) {
+            seed(context.getBean(ContentService.class));
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            HttpClient client = HttpClient.newBuilder()
+                .version(scenario.version())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            String baseUrl = "http://localhost:" + port + "/api/content";
+            
+            // Warm up the JIT and connection pool before measuring
+            measure(scenario, client, baseUrl, "list", REQUESTS / 10);
+            measure(scenario, client, baseUrl, "byId", REQUESTS / 10);
+            return List.of(
+                measure(scenario, client, baseUrl, "list", REQUESTS),
+                measure(scenario, client, baseUrl, "byId", REQUESTS)
+            );
+        }
+    }
+    
+    private Result measure(Scenario scenario, HttpClient client, String baseUrl,
+                           String endpoint, int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        AtomicLong bytes = new AtomicLong();
+        long[] latencies = new long[requests];
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                int slot = i;
+                futures.add(executor.submit(() -> {
+                    String url = endpoint.equals("list")
+                        ? baseUrl
+                        : baseUrl + "/" + ThreadLocalRandom.current().nextInt(1, DATASET + 1);
+                    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+                    if (scenario.acceptGzip()) {
+                        request.header("Accept-Encoding", "gzip");
+                    }
+                    long start = System.nanoTime();
+                    HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                    latencies[slot] = System.nanoTime() - start;
+                    assertThat(response.statusCode()).isEqualTo(200);
+                    bytes.addAndGet(response.body().length);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Arrays.sort(latencies);
+        return new Result(scenario.name(), endpoint, requests, bytes.get(), latencies);
+    }
+    
+    private void seed(ContentService contentService) {
+        String paragraph = "Spring Boot makes it easy to create stand-alone, production-grade applications. ";
+        StringBuilder body = new StringBuilder();
+        while (body.length() < BODY_SIZE) {
+            body.append(paragraph);
+        }
+        for (int i = 1; i <= DATASET; i++) {
+            contentService.createContent(new ContentRequest("Benchmark article " + i, body + " #" + i));
+        }
+    }
+    
+    private record Scenario(String name, HttpClient.Version version, boolean acceptGzip,
+                            Map<String, String> properties) {
+    }
+    
+    private record Result(String scenario, String endpoint, int requests, long bytes, long[] sortedLatencies) {
+        
+        String format() {
+            return String.format("%-22s %-10s %14d %12.2f %10.2f %10.2f %10.2f",
+                scenario, endpoint, bytes / requests, bytes / (1024.0 * 1024.0),
+                percentile(0.50), percentile(0.99), sortedLatencies[sortedLatencies.length - 1] / 1e6);
+        }
+        
+        private double percentile(double p) {
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.whitefallen.cms.publishing;
+
+import com.whitefallen.cms.config.PublishingProperties;
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.service.ContentBodyStore;
+import com.whitefallen.cms.service.ContentChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({PublicationScheduler.class, PublishingProperties.class, ContentBodyStore.class, SimpleMeterRegistry.class})
+class PublicationSchedulerTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private ContentRepository contentRepository;
+    
+    @Autowired
+    private PublicationScheduler scheduler;
+    
+    @Autowired
+    private ContentBodyStore bodyStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void whenPublishTimeArrives_thenContentBecomesVisible() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Content content = persist("Embargoed", now.plusSeconds(10), null, false);
+        scheduler.onContentChanged(ContentChangedEvent.created(ContentResponse.fromContent(content)));
+        
+        // When & Then
+        assertThat(scheduler.runDue(now.plusSeconds(5))).isZero();
+        assertThat(scheduler.runDue(now.plusSeconds(12))).isEqualTo(1);
+        entityManager.clear();
+        assertThat(contentRepository.findVisibleById(content.getId())).isPresent();
+    }
+    
+    @Test
+    void whenUnpublishTimeArrives_thenContentIsHidden() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Content content = persist("Expiring", null, now.plusMinutes(90), true);
+        scheduler.onContentChanged(ContentChangedEvent.created(ContentResponse.fromContent(content)));
+        
+        // When
+        int flipped = scheduler.runDue(now.plusMinutes(91));
+        
+        // Then
+        assertThat(flipped).isEqualTo(1);
+        entityManager.clear();
+        assertThat(contentRepository.findVisibleById(content.getId())).isEmpty();
+        assertThat(contentRepository.findById(content.getId())).isPresent();
+    }
+    
+    @Test
+    void whenWindowMovedLater_thenStaleEntryChangesNothing() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Content content = persist("Postponed", now.plusSeconds(10), null, false);
+        scheduler.onContentChanged(ContentChangedEvent.created(ContentResponse.fromContent(content)));
+        content.setPublishAt(now.plusHours(1));
+        entityManager.flush();
+        
+        // When
+        int flipped = scheduler.runDue(now.plusSeconds(12));
+        
+        // Then
+        assertThat(flipped).isZero();
+        entityManager.clear();
+        assertThat(contentRepository.findVisibleById(content.getId())).isEmpty();
+    }
+    
+    @Test
+    void whenLoaded_thenStaleRowsAreCorrectedAndPendingTimesScheduled() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Content overdue = persist("Missed while down", now.minusMinutes(5), null, false);
+        persist("Later", now.plusDays(2), null, false);
+        int pendingBefore = scheduler.pending();
+        
+        // When
+        scheduler.load();
+        
+        // Then
+        entityManager.clear();
+        assertThat(contentRepository.findVisibleById(overdue.getId())).isPresent();
+        assertThat(scheduler.pending()).isEqualTo(pendingBefore + 1);
+    }
+    
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void whenWindowIsMovedLaterDuringFlip_thenContentStaysHidden() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Content content = transactionTemplate.execute(status -> persist("Embargoed", now.plusSeconds(10), null, false));
+        scheduler.onContentChanged(ContentChangedEvent.created(ContentResponse.withoutBody(content)));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch editMayCommit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // When - the publish time comes due while an edit postpones it
+            Future<?> edit = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                Content edited = contentRepository.findForEditById(content.getId()).orElseThrow();
+                edited.setPublishAt(now.plusHours(4));
+                locked.countDown();
+                awaitQuietly(editMayCommit);
+            }));
+            assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+            // Far enough ahead to pass the wheel's clock, which earlier tests move on by up to 91 minutes
+            Future<Integer> run = executor.submit(() -> scheduler.runDue(now.plusHours(3)));
+            Thread.sleep(200);
+            editMayCommit.countDown();
+            edit.get(5, TimeUnit.SECONDS);
+            
+            // Then - the scheduler waited for the edit and saw the new window
+            assertThat(run.get(5, TimeUnit.SECONDS)).isZero();
+            assertThat(contentRepository.findVisibleById(content.getId())).isEmpty();
+        } finally {
+            executor.shutdownNow();
+            transactionTemplate.executeWithoutResult(status -> contentRepository.deleteAllInBatch());
+        }
+    }
+    
+    private Content persist(String title, LocalDateTime publishAt, LocalDateTime unpublishAt, boolean visible) {
+        Content content = new Content(title, bodyStore.acquire(title + " body"));
+        content.setPublishAt(publishAt);
+        content.setUnpublishAt(unpublishAt);
+        content.setVisible(visible);
+        return entityManager.persistAndFlush(content);
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.whitefallen.cms.publishing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+    
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+    
+    @Test
+    void whenTimerDue_thenFireOnceItsTickHasElapsed() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, START);
+        wheel.add(START + 2500, "a");
+        List<String> fired = new ArrayList<>();
+        
+        // When & Then
+        wheel.advance(START + 2999, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advance(START + 3000, fired::add);
+        assertThat(fired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+    
+    @Test
+    void whenDeadlineAlreadyPassed_thenFireOnNextAdvance() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, START);
+        wheel.advance(START + 5000, value -> { });
+        wheel.add(START, "late");
+        List<String> fired = new ArrayList<>();
+        
+        // When
+        wheel.advance(START + 6000, fired::add);
+        
+        // Then
+        assertThat(fired).containsExactly("late");
+    }
+    
+    @Test
+    void whenTimersSpanSeveralLevels_thenEachFiresInItsOwnTick() {
+        // Given: with 8 buckets, levels cover 8s, 64s, 512s and 4096s
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 8, START);
+        long[] offsets = {1_500, 7_000, 9_000, 63_000, 64_000, 65_500, 500_000, 4_000_000};
+        for (long offset : offsets) {
+            wheel.add(START + offset, offset);
+        }
+        List<Long> fired = new ArrayList<>();
+        
+        // When
+        for (long now = START; now <= START + 4_100_000; now += TICK) {
+            long at = now;
+            wheel.advance(now, offset -> {
+                // Never early, at most one tick late
+                assertThat(at).isGreaterThan(START + offset).isLessThanOrEqualTo(START + offset + TICK);
+                fired.add(offset);
+            });
+        }
+        
+        // Then
+        assertThat(fired).containsExactly(1_500L, 7_000L, 9_000L, 63_000L, 64_000L, 65_500L, 500_000L, 4_000_000L);
+    }
+    
+    @Test
+    void whenAdvancingInLargeSteps_thenNoTimerIsLost() {
+        // Given
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 64, START);
+        int timers = 200_000;
+        for (int i = 0; i < timers; i++) {
+            wheel.add(START + ThreadLocalRandom.current().nextLong(TICK, 30L * 24 * 3600 * 1000), i);
+        }
+        List<Integer> fired = new ArrayList<>();
+        
+        // When
+        for (long now = START; now <= START + 31L * 24 * 3600 * 1000; now += 3_600_000) {
+            wheel.advance(now, fired::add);
+        }
+        
+        // Then
+        assertThat(fired).hasSize(timers);
+        assertThat(wheel.size()).isZero();
+    }
+}
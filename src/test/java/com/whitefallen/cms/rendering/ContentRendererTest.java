@@ -0,0 +1,56 @@
+package com.whitefallen.cms.rendering;
+
+import com.whitefallen.cms.model.ContentRendition;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentRendererTest {
+    
+    private final ContentRenderer renderer = new ContentRenderer();
+    
+    @Test
+    void whenBodyIsMarkdown_thenRenderHtmlExcerptAndWordCount() {
+        // Given
+        String body = "# Release notes\n\nThe **new** editor ships with `autosave`.\n\n- faster\n- smaller";
+        
+        // When
+        ContentRendition rendition = renderer.render(1L, "hash", body);
+        
+        // Then
+        assertThat(rendition.getHtml()).contains("<h1>Release notes</h1>", "<strong>new</strong>", "<code>autosave</code>",
+            "<li>faster</li>");
+        assertThat(rendition.getExcerpt()).isEqualTo("Release notes The new editor ships with autosave. faster smaller");
+        assertThat(rendition.getWordCount()).isEqualTo(10);
+        assertThat(rendition.getBodyHash()).isEqualTo("hash");
+        assertThat(rendition.getRendererVersion()).isEqualTo(ContentRenderer.VERSION);
+    }
+    
+    @Test
+    void whenBodyContainsRawHtmlOrUnsafeLinks_thenOutputIsSanitized() {
+        // Given
+        String body = "<script>alert(1)</script>\n\nClick [here](javascript:alert(1)) or [there](https://example.com).";
+        
+        // When
+        ContentRendition rendition = renderer.render(1L, "hash", body);
+        
+        // Then
+        assertThat(rendition.getHtml())
+            .doesNotContain("<script>", "javascript:")
+            .contains("&lt;script&gt;", "<a rel=\"nofollow noopener\" href=\"https://example.com\">there</a>");
+        assertThat(rendition.getExcerpt()).isEqualTo("Click here or there.");
+    }
+    
+    @Test
+    void whenTextIsLong_thenExcerptIsCutAtAWordBoundary() {
+        // Given
+        String text = "word ".repeat(100).trim();
+        
+        // When
+        String excerpt = ContentRenderer.excerptOf(text);
+        
+        // Then
+        assertThat(excerpt).hasSizeLessThanOrEqualTo(ContentRenderer.EXCERPT_LENGTH + 1).endsWith("word…");
+        assertThat(ContentRenderer.wordCountOf(text)).isEqualTo(100);
+    }
+}
@@ -0,0 +1,257 @@
+package com.whitefallen.cms.rendering;
+
+import com.whitefallen.cms.config.RenderingProperties;
+import com.whitefallen.cms.config.TieringProperties;
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.model.ContentRendition;
+import com.whitefallen.cms.repository.ContentBodyRepository;
+import com.whitefallen.cms.repository.ContentRenditionRepository;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.service.ContentBodyStore;
+import com.whitefallen.cms.tiering.ContentArchive;
+import com.whitefallen.cms.tiering.ContentTiering;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ContentRenditions.class, ContentRenderer.class, ContentTiering.class, ContentArchive.class,
+         ContentBodyStore.class, SimpleMeterRegistry.class})
+@EnableConfigurationProperties({RenderingProperties.class, TieringProperties.class})
+class ContentRenditionsTest {
+    
+    @TempDir
+    static Path archiveDirectory;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private ContentRenditions renditions;
+    
+    @Autowired
+    private ContentRenderer renderer;
+    
+    @Autowired
+    private ContentBodyStore bodyStore;
+    
+    @Autowired
+    private ContentRenditionRepository renditionRepository;
+    
+    @Autowired
+    private ContentRepository contentRepository;
+    
+    @Autowired
+    private ContentBodyRepository bodyRepository;
+    
+    @Autowired
+    private ContentArchive archive;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @DynamicPropertySource
+    static void renderingProperties(DynamicPropertyRegistry registry) {
+        registry.add("cms.tiering.directory", () -> archiveDirectory.toString());
+        registry.add("cms.rendering.max-renders-per-read", () -> "2");
+    }
+    
+    @Test
+    void whenRenditionIsMissing_thenReadRendersAndStoresIt() {
+        // Given
+        ContentResponse content = persist("Guide", "A *short* guide");
+        
+        // When
+        ContentResponse summary = renditions.present(content, ContentView.SUMMARY);
+        
+        // Then
+        assertThat(summary.getBody()).isNull();
+        assertThat(summary.getExcerpt()).isEqualTo("A short guide");
+        assertThat(summary.getWordCount()).isEqualTo(3);
+        assertThat(summary.getTitle()).isEqualTo("Guide");
+        assertThat(renditionRepository.findById(content.getId()).orElseThrow().getBodyHash())
+            .isEqualTo(content.getBodyHash());
+    }
+    
+    @Test
+    void whenRenditionIsCurrent_thenReadReturnsItWithoutRendering() {
+        // Given
+        ContentResponse content = persist("Guide", "A *short* guide");
+        ContentRendition stored = renderer.render(content.getId(), content.getBodyHash(), "Stored rendition");
+        entityManager.persistAndFlush(stored);
+        
+        // When
+        List<ContentResponse> html = renditions.present(List.of(content), ContentView.HTML);
+        
+        // Then
+        assertThat(html).singleElement().satisfies(item -> {
+            assertThat(item.getHtml()).isEqualTo("<p>Stored rendition</p>\n");
+            assertThat(item.getBody()).isNull();
+        });
+    }
+    
+    @Test
+    void whenRenditionIsStale_thenReadRendersItAgain() {
+        // Given
+        ContentResponse content = persist("Guide", "A *short* guide");
+        ContentRendition outdated = renderer.render(content.getId(), content.getBodyHash(), "Old output");
+        outdated.setRendererVersion(ContentRenderer.VERSION - 1);
+        entityManager.persistAndFlush(outdated);
+        
+        // When
+        ContentResponse html = renditions.present(content, ContentView.HTML);
+        
+        // Then
+        assertThat(html.getHtml()).isEqualTo("<p>A <em>short</em> guide</p>\n");
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(renditionRepository.findById(content.getId()).orElseThrow().getRendererVersion())
+            .isEqualTo(ContentRenderer.VERSION);
+    }
+    
+    @Test
+    void whenViewIsRaw_thenContentIsReturnedAsItIs() {
+        // Given
+        List<ContentResponse> contents = List.of(persist("Guide", "A *short* guide"));
+        
+        // When
+        List<ContentResponse> raw = renditions.present(contents, ContentView.RAW);
+        
+        // Then
+        assertThat(raw).isSameAs(contents);
+        assertThat(renditionRepository.count()).isZero();
+    }
+    
+    @Test
+    void whenContentComesWithoutBody_thenMissingRenditionsReadBodiesFromEitherTier() {
+        // Given
+        ContentResponse hot = ContentResponse.withoutBody(persistEntity("Hot", "A *hot* body"));
+        Content cold = persistEntity("Cold", "A *cold* body");
+        archive.write(cold.getId(), cold.getBody());
+        contentRepository.markArchived(cold.getId(), cold.getBody().length(), cold.getBodyHash());
+        ContentResponse archived = ContentResponse.withoutBody(cold);
+        entityManager.clear();
+        
+        // When
+        List<ContentResponse> html = renditions.present(List.of(hot, archived), ContentView.HTML);
+        
+        // Then
+        assertThat(html).extracting(ContentResponse::getHtml)
+            .containsExactly("<p>A <em>hot</em> body</p>\n", "<p>A <em>cold</em> body</p>\n");
+        assertThat(renditionRepository.findById(cold.getId()).orElseThrow().getBodyHash())
+            .isEqualTo(cold.getBodyHash());
+    }
+    
+    @Test
+    void whenRowsComeWithoutBody_thenRenditionsAreReturnedById() {
+        // Given
+        ContentResponse stored = persist("Stored", "A *stored* body");
+        entityManager.persistAndFlush(renderer.render(stored.getId(), stored.getBodyHash(), "Stored output"));
+        ContentResponse missing = persist("Missing", "A *missing* body");
+        entityManager.clear();
+        
+        // When
+        Map<Long, ContentRendition> current = renditions.renditionsOf(contentRepository.findAllVisibleMetadata());
+        
+        // Then
+        assertThat(current).containsOnlyKeys(stored.getId(), missing.getId());
+        assertThat(current.get(stored.getId()).getHtml()).isEqualTo("<p>Stored output</p>\n");
+        assertThat(current.get(missing.getId()).getHtml()).isEqualTo("<p>A <em>missing</em> body</p>\n");
+    }
+    
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void whenMoreRenditionsAreMissingThanTheCap_thenTheRestArePendingAndRenderedInTheBackground() {
+        // Given
+        List<ContentResponse> contents = transactionTemplate.execute(status -> List.of(
+            ContentResponse.withoutBody(persistEntity("First", "One")),
+            ContentResponse.withoutBody(persistEntity("Second", "Two")),
+            ContentResponse.withoutBody(persistEntity("Third", "Three"))));
+        try {
+            // When
+            List<ContentResponse> summaries = renditions.present(contents, ContentView.SUMMARY);
+            
+            // Then
+            assertThat(summaries).extracting(ContentResponse::getExcerpt).containsExactly("One", "Two", null);
+            assertThat(summaries.get(2).getRenderPending()).isTrue();
+            assertThat(summaries.get(2).getTitle()).isEqualTo("Third");
+            awaitRenditions(3);
+            assertThat(renditions.present(contents.get(2), ContentView.SUMMARY).getExcerpt()).isEqualTo("Three");
+        } finally {
+            deleteAll();
+        }
+    }
+    
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void whenRenditionsAreMissingOrStale_thenBackfillQueuesThem() {
+        // Given
+        ContentResponse current = transactionTemplate.execute(status -> persist("Current", "Current body"));
+        ContentResponse outdated = transactionTemplate.execute(status -> persist("Outdated", "Outdated body"));
+        transactionTemplate.execute(status -> persist("Missing", "Missing body"));
+        transactionTemplate.executeWithoutResult(status -> {
+            renditionRepository.save(renderer.render(current.getId(), current.getBodyHash(), "Current body"));
+            ContentRendition old = renderer.render(outdated.getId(), outdated.getBodyHash(), "Outdated body");
+            old.setRendererVersion(ContentRenderer.VERSION - 1);
+            renditionRepository.save(old);
+        });
+        try {
+            // When
+            int queued = renditions.backfill();
+            
+            // Then
+            assertThat(queued).isEqualTo(2);
+            awaitRenditions(3);
+            assertThat(renditionRepository.findAll()).allSatisfy(rendition ->
+                assertThat(rendition.getRendererVersion()).isEqualTo(ContentRenderer.VERSION));
+            assertThat(renditionRepository.findStale(ContentRenderer.VERSION, 10)).isEmpty();
+        } finally {
+            deleteAll();
+        }
+    }
+    
+    private ContentResponse persist(String title, String body) {
+        return ContentResponse.fromContent(persistEntity(title, body));
+    }
+    
+    private Content persistEntity(String title, String body) {
+        return entityManager.persistAndFlush(new Content(title, bodyStore.acquire(body)));
+    }
+    
+    private void awaitRenditions(long count) {
+        for (int attempt = 0; attempt < 50 && renditionRepository.count() < count; attempt++) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(renditionRepository.count()).isEqualTo(count);
+    }
+    
+    private void deleteAll() {
+        transactionTemplate.executeWithoutResult(status -> {
+            renditionRepository.deleteAllInBatch();
+            contentRepository.deleteAllInBatch();
+            bodyRepository.deleteAllInBatch();
+        });
+    }
+}
@@ -1,17 +1,23 @@
 package com.whitefallen.cms.repository;
 
 import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.service.ContentBodyStore;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@Import(ContentBodyStore.class)
 class ContentRepositoryTest {
     
     @Autowired
@@ -20,10 +26,13 @@ class ContentRepositoryTest {
     @Autowired
     private ContentRepository contentRepository;
     
+    @Autowired
+    private ContentBodyStore bodyStore;
+    
     @Test
     void whenSaveContent_thenContentIsPersisted() {
         // Given
-        Content content = new Content("Test Title", "Test Body");
+        Content content = new Content("Test Title", bodyStore.acquire("Test Body"));
         
         // When
         Content saved = contentRepository.save(content);
@@ -39,7 +48,7 @@ class ContentRepositoryTest {
     @Test
     void whenFindById_thenReturnContent() {
         // Given
-        Content content = new Content("Test Title", "Test Body");
+        Content content = new Content("Test Title", bodyStore.acquire("Test Body"));
         Content saved = entityManager.persistAndFlush(content);
         
         // When
@@ -53,8 +62,8 @@ class ContentRepositoryTest {
     @Test
     void whenFindAll_thenReturnAllContent() {
         // Given
-        entityManager.persist(new Content("Title 1", "Body 1"));
-        entityManager.persist(new Content("Title 2", "Body 2"));
+        entityManager.persist(new Content("Title 1", bodyStore.acquire("Body 1")));
+        entityManager.persist(new Content("Title 2", bodyStore.acquire("Body 2")));
         entityManager.flush();
         
         // When
@@ -65,26 +74,76 @@ class ContentRepositoryTest {
     }
     
     @Test
-    void whenFindByTitleContaining_thenReturnMatchingContent() {
+    void whenSearchVisibleByTitle_thenReturnMatchingContent() {
+        // Given
+        entityManager.persist(new Content("Spring Boot Tutorial", bodyStore.acquire("Body 1")));
+        entityManager.persist(new Content("Java Tutorial", bodyStore.acquire("Body 2")));
+        entityManager.persist(new Content("Spring Security Guide", bodyStore.acquire("Body 3")));
+        entityManager.persist(new Content("100% Spring", bodyStore.acquire("Body 4")));
+        entityManager.flush();
+        
+        // When
+        List<ContentReadView> found = contentRepository.searchVisibleByTitle("spring");
+        
+        // Then
+        assertThat(found).extracting(ContentReadView::getTitle)
+            .containsExactly("Spring Boot Tutorial", "Spring Security Guide", "100% Spring");
+        assertThat(found.get(0).getBody()).isEqualTo("Body 1");
+        assertThat(contentRepository.searchVisibleByTitle("0% s")).extracting(ContentReadView::getTitle)
+            .containsExactly("100% Spring");
+        assertThat(contentRepository.searchVisibleByTitle("%")).hasSize(1);
+    }
+    
+    @Test
+    void whenFindVisibleById_thenProjectionCarriesRowAndBody() {
+        // Given
+        Content hot = entityManager.persist(new Content("Hot", bodyStore.acquire("Hot body")));
+        Content cold = entityManager.persist(new Content("Cold", bodyStore.acquire("Cold body")));
+        entityManager.flush();
+        contentRepository.markArchived(cold.getId(), 9, cold.getBodyHash());
+        entityManager.clear();
+        
+        // When
+        ContentReadView hotView = contentRepository.findVisibleById(hot.getId()).orElseThrow();
+        ContentReadView coldView = contentRepository.findVisibleById(cold.getId()).orElseThrow();
+        
+        // Then
+        assertThat(hotView.getTitle()).isEqualTo("Hot");
+        assertThat(hotView.getBody()).isEqualTo("Hot body");
+        assertThat(hotView.getBodyHash()).isEqualTo(hot.getBodyHash());
+        assertThat(hotView.getCreatedAt()).isNotNull();
+        assertThat(hotView.isVisible()).isTrue();
+        assertThat(hotView.isArchived()).isFalse();
+        assertThat(coldView.isArchived()).isTrue();
+        assertThat(coldView.getBody()).isNull();
+        assertThat(coldView.getBodyHash()).isEqualTo(cold.getBodyHash());
+    }
+    
+    @Test
+    void whenFindVisibleMetadata_thenProjectionCarriesHashWithoutBody() {
         // Given
-        entityManager.persist(new Content("Spring Boot Tutorial", "Body 1"));
-        entityManager.persist(new Content("Java Tutorial", "Body 2"));
-        entityManager.persist(new Content("Spring Security Guide", "Body 3"));
+        Content hot = entityManager.persist(new Content("Hot", bodyStore.acquire("Hot body")));
+        Content cold = entityManager.persist(new Content("Cold", bodyStore.acquire("Cold body")));
         entityManager.flush();
+        contentRepository.markArchived(cold.getId(), 9, cold.getBodyHash());
+        entityManager.clear();
         
         // When
-        List<Content> found = contentRepository.findByTitleContainingIgnoreCase("spring");
+        List<ContentReadView> views = contentRepository.findAllVisibleMetadata();
         
         // Then
-        assertThat(found).hasSize(2);
-        assertThat(found).extracting(Content::getTitle)
-            .containsExactlyInAnyOrder("Spring Boot Tutorial", "Spring Security Guide");
+        assertThat(views).extracting(ContentReadView::getTitle).containsExactly("Hot", "Cold");
+        assertThat(views).extracting(ContentReadView::getBody).containsOnlyNulls();
+        assertThat(views).extracting(ContentReadView::getBodyHash).containsExactly(hot.getBodyHash(), cold.getBodyHash());
+        assertThat(contentRepository.findVisibleMetadataById(cold.getId()).orElseThrow().isArchived()).isTrue();
+        assertThat(contentRepository.hasCurrentBody(cold.getId(), cold.getBodyHash())).isTrue();
+        assertThat(contentRepository.hasCurrentBody(cold.getId(), hot.getBodyHash())).isFalse();
     }
     
     @Test
     void whenDeleteContent_thenContentIsRemoved() {
         // Given
-        Content content = new Content("Test Title", "Test Body");
+        Content content = new Content("Test Title", bodyStore.acquire("Test Body"));
         Content saved = entityManager.persistAndFlush(content);
         
         // When
@@ -94,4 +153,161 @@ class ContentRepositoryTest {
         Optional<Content> found = contentRepository.findById(saved.getId());
         assertThat(found).isEmpty();
     }
+    
+    @Test
+    void whenSoftDeleteContent_thenContentIsHiddenFromReads() {
+        // Given
+        Content kept = entityManager.persist(new Content("Spring Boot Tutorial", bodyStore.acquire("Body 1")));
+        Content removed = entityManager.persist(new Content("Spring Security Guide", bodyStore.acquire("Body 2")));
+        entityManager.flush();
+        
+        // When
+        int updated = contentRepository.softDeleteById(removed.getId(), LocalDateTime.now());
+        entityManager.clear();
+        
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(contentRepository.findById(removed.getId())).isEmpty();
+        assertThat(contentRepository.existsById(removed.getId())).isFalse();
+        assertThat(contentRepository.findAll()).extracting(Content::getId).containsExactly(kept.getId());
+        assertThat(contentRepository.searchVisibleByTitle("spring"))
+            .extracting(ContentReadView::getId).containsExactly(kept.getId());
+        assertThat(contentRepository.findVisibleById(removed.getId())).isEmpty();
+        assertThat(contentRepository.findAllTitles()).hasSize(1);
+        assertThat(contentRepository.softDeleteById(removed.getId(), LocalDateTime.now())).isZero();
+    }
+    
+    @Test
+    void whenFindForEditById_thenBodyStaysUnloaded() {
+        // Given
+        Content saved = entityManager.persist(new Content("Title", bodyStore.acquire("Large body")));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        Content found = contentRepository.findForEditById(saved.getId()).orElseThrow();
+        
+        // Then
+        assertThat(found.getBodyHash()).isEqualTo(saved.getBodyHash());
+        assertThat(Hibernate.isInitialized(found.getBodyBlob())).isFalse();
+    }
+    
+    @Test
+    void whenPurgeTombstones_thenOnlyExpiredOnesAreRemoved() {
+        // Given
+        Content old = entityManager.persist(new Content("Old", bodyStore.acquire("Body 1")));
+        Content recent = entityManager.persist(new Content("Recent", bodyStore.acquire("Body 2")));
+        Content live = entityManager.persist(new Content("Live", bodyStore.acquire("Body 3")));
+        entityManager.flush();
+        contentRepository.softDeleteById(old.getId(), LocalDateTime.now().minusDays(30));
+        contentRepository.softDeleteById(recent.getId(), LocalDateTime.now());
+        
+        // When
+        List<Long> purgeable = contentRepository.findPurgeableIds(LocalDateTime.now().minusDays(7), 10);
+        int purged = contentRepository.purgeByIds(purgeable);
+        
+        // Then
+        assertThat(purgeable).containsExactly(old.getId());
+        assertThat(purged).isEqualTo(1);
+        assertThat(contentRepository.findPurgeableIds(LocalDateTime.now().plusDays(1), 10))
+            .containsExactly(recent.getId());
+        assertThat(contentRepository.findById(live.getId())).isPresent();
+    }
+    
+    @Test
+    void whenAggregateForStatistics_thenSoftDeletedRowsAreExcluded() {
+        // Given
+        entityManager.persist(new Content("Short", bodyStore.acquire("Body")));
+        entityManager.persist(new Content("Longer title", bodyStore.acquire("Text")));
+        Content deleted = entityManager.persist(new Content("Gone", bodyStore.acquire("Another body")));
+        entityManager.flush();
+        contentRepository.softDeleteById(deleted.getId(), LocalDateTime.now());
+        
+        // When
+        List<DailyCountView> created = contentRepository.countCreatedPerDay();
+        List<LengthCountView> titles = contentRepository.countByTitleLength();
+        List<LengthCountView> bodies = contentRepository.countByBodyLength();
+        
+        // Then
+        assertThat(created).hasSize(1);
+        assertThat(created.get(0).getDay()).isEqualTo(LocalDate.now());
+        assertThat(created.get(0).getCount()).isEqualTo(2);
+        assertThat(titles).extracting(LengthCountView::getLength).containsExactlyInAnyOrder(5, 12);
+        assertThat(bodies).hasSize(1);
+        assertThat(bodies.get(0).getLength()).isEqualTo(4);
+        assertThat(bodies.get(0).getCount()).isEqualTo(2);
+    }
+    
+    @Test
+    void whenContentNotVisible_thenHiddenFromPublicReadsOnly() {
+        // Given
+        Content published = entityManager.persist(new Content("Spring published", bodyStore.acquire("Body")));
+        Content embargoed = new Content("Spring embargoed", bodyStore.acquire("Other body"));
+        embargoed.setPublishAt(LocalDateTime.now().plusDays(1));
+        embargoed.setVisible(false);
+        entityManager.persist(embargoed);
+        entityManager.flush();
+        
+        // When & Then
+        assertThat(contentRepository.findVisibleById(embargoed.getId())).isEmpty();
+        assertThat(contentRepository.findAllVisible()).extracting(ContentReadView::getId)
+            .containsExactly(published.getId());
+        assertThat(contentRepository.findVisibleByIdIn(List.of(published.getId(), embargoed.getId())))
+            .extracting(ContentReadView::getId).containsExactly(published.getId());
+        assertThat(contentRepository.searchVisibleByTitle("spring")).hasSize(1);
+        assertThat(contentRepository.findAllTitles()).hasSize(1);
+        assertThat(contentRepository.findById(embargoed.getId())).isPresent();
+    }
+    
+    @Test
+    void whenFindPublicationWork_thenReturnPendingAndStaleRows() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Content pending = new Content("Pending", bodyStore.acquire("Body"));
+        pending.setPublishAt(now.plusHours(1));
+        pending.setVisible(false);
+        Content stale = new Content("Stale", bodyStore.acquire("Other body"));
+        stale.setUnpublishAt(now.minusMinutes(1));
+        entityManager.persist(pending);
+        entityManager.persist(stale);
+        entityManager.persist(new Content("Plain", bodyStore.acquire("Third body")));
+        entityManager.flush();
+        
+        // When
+        List<PublicationView> pendingViews = contentRepository.findPendingPublications(now);
+        List<Long> staleIds = contentRepository.findIdsWithStaleVisibility(now);
+        
+        // Then
+        assertThat(pendingViews).extracting(PublicationView::getId).containsExactly(pending.getId());
+        assertThat(staleIds).containsExactly(stale.getId());
+        assertThat(pendingViews.get(0).getTitle()).isEqualTo("Pending");
+        assertThat(pendingViews.get(0).isVisible()).isFalse();
+    }
+    
+    @Test
+    void whenVisibilityIsFlipped_thenOnlyRowsWhoseWindowAgreesChange() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Content due = new Content("Due", bodyStore.acquire("Body"));
+        due.setPublishAt(now.minusMinutes(1));
+        due.setVisible(false);
+        Content postponed = new Content("Postponed", bodyStore.acquire("Other body"));
+        postponed.setPublishAt(now.plusHours(1));
+        postponed.setVisible(false);
+        entityManager.persist(due);
+        entityManager.persist(postponed);
+        entityManager.flush();
+        List<Long> ids = List.of(due.getId(), postponed.getId());
+        
+        // When
+        int shown = contentRepository.showIfWindowOpen(ids, now);
+        int hidden = contentRepository.hideIfWindowClosed(ids, now);
+        
+        // Then
+        entityManager.clear();
+        assertThat(shown).isEqualTo(1);
+        assertThat(hidden).isZero();
+        assertThat(contentRepository.findVisibleById(due.getId())).isPresent();
+        assertThat(contentRepository.findVisibleById(postponed.getId())).isEmpty();
+    }
 }
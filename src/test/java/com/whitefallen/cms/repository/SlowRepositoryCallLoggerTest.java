@@ -0,0 +1,46 @@
+package com.whitefallen.cms.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class SlowRepositoryCallLoggerTest {
+    
+    private final SlowRepositoryCallLogger logger = new SlowRepositoryCallLogger(Duration.ofMillis(200));
+    
+    @Test
+    void whenCallExceedsThreshold_thenLogRepositoryMethod(CapturedOutput output) throws Exception {
+        // When
+        logger.afterInvocation(invocation(TimeUnit.MILLISECONDS.toNanos(350)));
+        
+        // Then
+        assertThat(output).contains("Slow repository call ContentRepository.findAllVisible took 350 ms (SUCCESS)");
+    }
+    
+    @Test
+    void whenCallIsFast_thenNothingIsLogged(CapturedOutput output) throws Exception {
+        // When
+        logger.afterInvocation(invocation(TimeUnit.MILLISECONDS.toNanos(20)));
+        
+        // Then
+        assertThat(output).doesNotContain("Slow repository call");
+    }
+    
+    private static RepositoryMethodInvocation invocation(long durationNanos) throws Exception {
+        Method method = ContentRepository.class.getMethod("findAllVisible");
+        RepositoryMethodInvocationResult result = mock(RepositoryMethodInvocationResult.class);
+        when(result.getState()).thenReturn(RepositoryMethodInvocationResult.State.SUCCESS);
+        return new RepositoryMethodInvocation(ContentRepository.class, method, result, durationNanos);
+    }
+}
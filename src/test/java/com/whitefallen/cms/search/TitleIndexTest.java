@@ -0,0 +1,148 @@
+package com.whitefallen.cms.search;
+
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.dto.TitleSuggestion;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.repository.ContentTitleView;
+import com.whitefallen.cms.service.ContentChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TitleIndexTest {
+    
+    @Mock
+    private ContentRepository contentRepository;
+    
+    private TitleIndex titleIndex;
+    
+    @BeforeEach
+    void setUp() {
+        titleIndex = new TitleIndex(contentRepository);
+        titleIndex.put(1L, "Spring Boot Tutorial");
+        titleIndex.put(2L, "Java Tutorial");
+        titleIndex.put(3L, "Spring Security Guide");
+    }
+    
+    @Test
+    void whenSuggestByPrefix_thenReturnMatchingTitles() {
+        // When
+        List<TitleSuggestion> result = titleIndex.suggest("Spr", 10, 0);
+        
+        // Then
+        assertThat(result).extracting(TitleSuggestion::getTitle)
+            .containsExactly("Spring Boot Tutorial", "Spring Security Guide");
+    }
+    
+    @Test
+    void whenSuggestByInnerWordPrefix_thenReturnMatchingTitles() {
+        // When
+        List<TitleSuggestion> result = titleIndex.suggest("tut", 10, 0);
+        
+        // Then
+        assertThat(result).extracting(TitleSuggestion::getId).containsExactly(2L, 1L);
+    }
+    
+    @Test
+    void whenSuggestWithSeveralWords_thenAllWordsMustMatch() {
+        // When
+        List<TitleSuggestion> result = titleIndex.suggest("spring sec", 10, 0);
+        
+        // Then
+        assertThat(result).extracting(TitleSuggestion::getId).containsExactly(3L);
+    }
+    
+    @Test
+    void whenSuggestWithTypo_thenFuzzyMatchingFindsTitle() {
+        // When
+        List<TitleSuggestion> exact = titleIndex.suggest("sprnig", 10, 0);
+        List<TitleSuggestion> fuzzy = titleIndex.suggest("sprnig", 10, 2);
+        
+        // Then
+        assertThat(exact).isEmpty();
+        assertThat(fuzzy).extracting(TitleSuggestion::getId).containsExactlyInAnyOrder(1L, 3L);
+    }
+    
+    @Test
+    void whenFuzzySuggest_thenCloserMatchesRankFirst() {
+        // Given
+        titleIndex.put(4L, "Jaca Notes");
+        
+        // When
+        List<TitleSuggestion> result = titleIndex.suggest("java", 10, 1);
+        
+        // Then
+        assertThat(result).extracting(TitleSuggestion::getId).containsExactly(2L, 4L);
+    }
+    
+    @Test
+    void whenSuggestWithLimit_thenReturnAtMostLimit() {
+        // When
+        List<TitleSuggestion> result = titleIndex.suggest("s", 1, 0);
+        
+        // Then
+        assertThat(result).hasSize(1);
+    }
+    
+    @Test
+    void whenTitleUpdatedOrDeleted_thenIndexFollows() {
+        // Given
+        ContentResponse previous = response(2L, "Java Tutorial");
+        ContentResponse current = response(2L, "Kotlin Tutorial");
+        
+        // When
+        titleIndex.onContentChanged(ContentChangedEvent.updated(previous, current));
+        titleIndex.onContentChanged(ContentChangedEvent.deleted(1L, null));
+        
+        // Then
+        assertThat(titleIndex.suggest("java", 10, 0)).isEmpty();
+        assertThat(titleIndex.suggest("kot", 10, 0)).extracting(TitleSuggestion::getId).containsExactly(2L);
+        assertThat(titleIndex.suggest("tutorial", 10, 0)).extracting(TitleSuggestion::getId).containsExactly(2L);
+        assertThat(titleIndex.size()).isEqualTo(2);
+    }
+    
+    @Test
+    void whenContentHiddenBySchedule_thenRemovedFromIndex() {
+        // Given
+        ContentResponse previous = response(3L, "Spring Security Guide");
+        ContentResponse current = response(3L, "Spring Security Guide");
+        current.setVisible(false);
+        
+        // When
+        titleIndex.onContentChanged(ContentChangedEvent.updated(previous, current));
+        
+        // Then
+        assertThat(titleIndex.suggest("security", 10, 0)).isEmpty();
+        assertThat(titleIndex.size()).isEqualTo(2);
+    }
+    
+    @Test
+    void whenRebuild_thenIndexReflectsRepository() {
+        // Given
+        ContentTitleView view = mock(ContentTitleView.class);
+        when(view.getId()).thenReturn(7L);
+        when(view.getTitle()).thenReturn("Rebuilt Title");
+        when(contentRepository.findAllTitles()).thenReturn(List.of(view));
+        
+        // When
+        titleIndex.rebuild();
+        
+        // Then
+        assertThat(titleIndex.size()).isEqualTo(1);
+        assertThat(titleIndex.suggest("spring", 10, 0)).isEmpty();
+        assertThat(titleIndex.suggest("reb", 10, 0)).extracting(TitleSuggestion::getId).containsExactly(7L);
+    }
+    
+    private ContentResponse response(Long id, String title) {
+        return new ContentResponse(id, title, "Body", LocalDateTime.now(), LocalDateTime.now());
+    }
+}
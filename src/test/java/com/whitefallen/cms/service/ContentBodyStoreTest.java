@@ -0,0 +1,153 @@
+package com.whitefallen.cms.service;
+
+import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.model.ContentBody;
+import com.whitefallen.cms.repository.ContentBodyRepository;
+import com.whitefallen.cms.repository.ContentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ContentBodyStore.class)
+class ContentBodyStoreTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private ContentBodyStore bodyStore;
+    
+    @Autowired
+    private ContentBodyRepository bodyRepository;
+    
+    @Autowired
+    private ContentRepository contentRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void whenAcquireIdenticalBodies_thenBodyIsStoredOnce() {
+        // When
+        ContentBody first = bodyStore.acquire("Shared boilerplate");
+        ContentBody second = bodyStore.acquire("Shared boilerplate");
+        ContentBody other = bodyStore.acquire("Something else");
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Then
+        assertThat(first.getHash()).isEqualTo(second.getHash());
+        assertThat(bodyRepository.count()).isEqualTo(2);
+        assertThat(bodyRepository.findById(first.getHash()).orElseThrow().getRefCount()).isEqualTo(2);
+        assertThat(bodyRepository.findById(other.getHash()).orElseThrow().getRefCount()).isEqualTo(1);
+    }
+    
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void whenSameNewBodyIsAcquiredConcurrently_thenBothWritersShareOneRow() throws Exception {
+        // Given
+        String body = "Concurrent boilerplate";
+        CountDownLatch firstInserted = new CountDownLatch(1);
+        CountDownLatch firstMayCommit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // When - the second writer inserts while the first one's insert is not committed yet
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                bodyStore.acquire(body);
+                firstInserted.countDown();
+                awaitQuietly(firstMayCommit);
+            }));
+            assertThat(firstInserted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> second = executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                bodyStore.acquire(body)));
+            Thread.sleep(200);
+            firstMayCommit.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            
+            // Then
+            assertThat(bodyRepository.findById(ContentBody.hashOf(body)).orElseThrow().getRefCount()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+            transactionTemplate.executeWithoutResult(status -> bodyRepository.deleteById(ContentBody.hashOf(body)));
+        }
+    }
+    
+    @Test
+    void whenContentShareBody_thenEachReadsTheSameText() {
+        // Given
+        Content first = contentRepository.save(new Content("First", bodyStore.acquire("Shared boilerplate")));
+        Content second = contentRepository.save(new Content("Second", bodyStore.acquire("Shared boilerplate")));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        List<Content> all = contentRepository.findAll();
+        
+        // Then
+        assertThat(all).extracting(Content::getBody).containsOnly("Shared boilerplate");
+        assertThat(first.getBodyHash()).isEqualTo(second.getBodyHash());
+    }
+    
+    @Test
+    void whenTombstonesPurged_thenUnreferencedBodiesAreRemoved() {
+        // Given
+        Content keep = contentRepository.save(new Content("Keep", bodyStore.acquire("Shared boilerplate")));
+        Content drop = contentRepository.save(new Content("Drop", bodyStore.acquire("Shared boilerplate")));
+        Content alone = contentRepository.save(new Content("Alone", bodyStore.acquire("Unique body")));
+        entityManager.flush();
+        contentRepository.softDeleteById(drop.getId(), LocalDateTime.now());
+        contentRepository.softDeleteById(alone.getId(), LocalDateTime.now());
+        List<Long> ids = List.of(drop.getId(), alone.getId());
+        
+        // When
+        bodyRepository.releaseReferencesOf(ids);
+        contentRepository.purgeByIds(ids);
+        int removed = bodyRepository.deleteUnreferenced();
+        entityManager.clear();
+        
+        // Then
+        assertThat(removed).isEqualTo(1);
+        assertThat(bodyRepository.findById(keep.getBodyHash()).orElseThrow().getRefCount()).isEqualTo(1);
+        assertThat(bodyRepository.findById(ContentBody.hashOf("Unique body"))).isEmpty();
+    }
+    
+    @Test
+    void whenReleaseBody_thenReferenceCountDrops() {
+        // Given
+        ContentBody body = bodyStore.acquire("Shared boilerplate");
+        bodyStore.acquire("Shared boilerplate");
+        entityManager.flush();
+        
+        // When
+        bodyStore.release(body.getHash());
+        entityManager.clear();
+        
+        // Then
+        assertThat(bodyRepository.findById(body.getHash()).orElseThrow().getRefCount()).isEqualTo(1);
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
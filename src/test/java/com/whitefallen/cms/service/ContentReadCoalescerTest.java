@@ -0,0 +1,173 @@
+package com.whitefallen.cms.service;
+
+import com.whitefallen.cms.config.CoalescingProperties;
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.repository.ContentReadView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContentReadCoalescerTest {
+    
+    @Mock
+    private ContentService contentService;
+    
+    private CoalescingProperties properties;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    private ContentResponse testContentResponse;
+    
+    private ContentReadView testRow;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new CoalescingProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        testContentResponse = new ContentResponse(
+            1L,
+            "Test Title",
+            "Test Body",
+            LocalDateTime.now(),
+            LocalDateTime.now()
+        );
+        testRow = new ContentReadView(1L, "Test Title", "Test Body", null,
+            LocalDateTime.now(), LocalDateTime.now(), null, null, true, false);
+    }
+    
+    @Test
+    void whenConcurrentGetContentById_thenSingleLoadIsShared() throws Exception {
+        // Given
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(contentService.getContentById(1L)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return testContentResponse;
+        });
+        ContentReadCoalescer coalescer = new ContentReadCoalescer(contentService, properties, meterRegistry);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        
+        // When
+        List<Future<ContentResponse>> results = new ArrayList<>();
+        try {
+            results.add(executor.submit(() -> coalescer.getContentById(1L)));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> coalescer.getContentById(1L)));
+            }
+            waitForFollowers(3);
+            releaseLoad.countDown();
+            
+            // Then
+            for (Future<ContentResponse> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(testContentResponse);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(contentService, times(1)).getContentById(1L);
+        assertThat(meterRegistry.get("cms.coalescing.ratio").tag("operation", "getById").gauge().value())
+            .isEqualTo(0.75);
+    }
+    
+    @Test
+    void whenSequentialGetContentById_thenEachCallLoads() {
+        // Given
+        when(contentService.getContentById(1L)).thenReturn(testContentResponse);
+        ContentReadCoalescer coalescer = new ContentReadCoalescer(contentService, properties, meterRegistry);
+        
+        // When
+        coalescer.getContentById(1L);
+        coalescer.getContentById(1L);
+        
+        // Then
+        verify(contentService, times(2)).getContentById(1L);
+    }
+    
+    @Test
+    void whenLeaderFails_thenExceptionIsPropagated() {
+        // Given
+        when(contentService.getContentById(999L))
+            .thenThrow(new ResourceNotFoundException("Content not found with id: 999"));
+        ContentReadCoalescer coalescer = new ContentReadCoalescer(contentService, properties, meterRegistry);
+        
+        // When & Then
+        assertThatThrownBy(() -> coalescer.getContentById(999L))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Content not found with id: 999");
+    }
+    
+    @Test
+    void whenFollowerTimesOut_thenThrowServiceUnavailable() throws Exception {
+        // Given
+        properties.setTimeout(Duration.ofMillis(50));
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(contentService.searchContent("spring")).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return List.of(testRow);
+        });
+        ContentReadCoalescer coalescer = new ContentReadCoalescer(contentService, properties, meterRegistry);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        try {
+            Future<List<ContentReadView>> leader = executor.submit(() -> coalescer.searchContent("spring"));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            
+            // When & Then
+            assertThatThrownBy(() -> coalescer.searchContent("SPRING"))
+                .isInstanceOf(ServiceUnavailableException.class);
+            releaseLoad.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly(testRow);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(contentService, times(1)).searchContent("spring");
+    }
+    
+    @Test
+    void whenCoalescingDisabled_thenDelegateDirectly() {
+        // Given
+        properties.setEnabled(false);
+        when(contentService.searchContent("test")).thenReturn(List.of(testRow));
+        ContentReadCoalescer coalescer = new ContentReadCoalescer(contentService, properties, meterRegistry);
+        
+        // When
+        List<ContentReadView> result = coalescer.searchContent("test");
+        
+        // Then
+        assertThat(result).containsExactly(testRow);
+        assertThat(meterRegistry.get("cms.coalescing.calls").tag("operation", "search").counters())
+            .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+    
+    private void waitForFollowers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("cms.coalescing.calls")
+                .tag("operation", "getById")
+                .tag("role", "follower")
+                .counter().count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
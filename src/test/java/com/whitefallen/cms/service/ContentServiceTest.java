@@ -1,25 +1,40 @@
 package com.whitefallen.cms.service;
 
+import com.whitefallen.cms.dto.ContentPatchRequest;
 import com.whitefallen.cms.dto.ContentRequest;
 import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.dto.MultiGetResponse;
 import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.model.ContentBody;
+import com.whitefallen.cms.repository.ContentReadView;
 import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.tiering.ContentTiering;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +43,18 @@ class ContentServiceTest {
     @Mock
     private ContentRepository contentRepository;
     
+    @Mock
+    private ContentBodyStore bodyStore;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private ContentTiering tiering;
+    
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    
     @InjectMocks
     private ContentService contentService;
     
@@ -35,7 +62,7 @@ class ContentServiceTest {
     
     @BeforeEach
     void setUp() {
-        testContent = new Content("Test Title", "Test Body");
+        testContent = new Content("Test Title", new ContentBody("Test Body"));
         testContent.setId(1L);
         testContent.setCreatedAt(LocalDateTime.now());
         testContent.setUpdatedAt(LocalDateTime.now());
@@ -44,22 +71,21 @@ class ContentServiceTest {
     @Test
     void whenGetAllContent_thenReturnAllContent() {
         // Given
-        List<Content> contentList = Arrays.asList(testContent);
-        when(contentRepository.findAll()).thenReturn(contentList);
+        when(contentRepository.findAllVisible()).thenReturn(List.of(readView(1L, "Test Title", "Test Body", false)));
         
         // When
-        List<ContentResponse> result = contentService.getAllContent();
+        List<ContentReadView> result = contentService.getAllContent();
         
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getTitle()).isEqualTo("Test Title");
-        verify(contentRepository, times(1)).findAll();
+        verify(contentRepository, times(1)).findAllVisible();
     }
     
     @Test
     void whenGetContentById_thenReturnContent() {
         // Given
-        when(contentRepository.findById(1L)).thenReturn(Optional.of(testContent));
+        when(contentRepository.findVisibleById(1L)).thenReturn(Optional.of(readView(1L, "Test Title", "Test Body", false)));
         
         // When
         ContentResponse result = contentService.getContentById(1L);
@@ -67,13 +93,62 @@ class ContentServiceTest {
         // Then
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getTitle()).isEqualTo("Test Title");
-        verify(contentRepository, times(1)).findById(1L);
+        verify(contentRepository, times(1)).findVisibleById(1L);
+        verify(tiering, never()).promoteOnRead(anyLong());
+    }
+    
+    @Test
+    void whenGetArchivedContentById_thenContentIsPromoted() {
+        // Given
+        when(contentRepository.findVisibleById(2L)).thenReturn(Optional.of(readView(2L, "Old Title", null, true)));
+        when(tiering.promoteOnRead(2L)).thenReturn("Archived Body");
+        
+        // When
+        ContentResponse result = contentService.getContentById(2L);
+        
+        // Then
+        assertThat(result.getBody()).isEqualTo("Archived Body");
+        verify(tiering).recordAccess(2L);
+        verify(tiering).promoteOnRead(2L);
+    }
+    
+    @Test
+    void whenGetArchivedContentWithoutBody_thenArchiveIsNotRead() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        ContentReadView archived = new ContentReadView(2L, "Old Title", "archived-hash", now, now, null, null, true, true);
+        when(contentRepository.findVisibleMetadataById(2L)).thenReturn(Optional.of(archived));
+        
+        // When
+        ContentResponse result = contentService.getContentWithoutBodyById(2L);
+        
+        // Then
+        assertThat(result.getBody()).isNull();
+        assertThat(result.getBodyHash()).isEqualTo("archived-hash");
+        verify(tiering).recordAccess(2L);
+        verify(tiering, never()).promoteOnRead(anyLong());
+        verify(tiering, never()).archivedBody(anyLong());
+    }
+    
+    @Test
+    void whenSearchMatchesArchivedContent_thenBodyIsReadWithoutPromotion() {
+        // Given
+        when(contentRepository.searchVisibleByTitle("Old")).thenReturn(List.of(readView(2L, "Old Title", null, true)));
+        when(tiering.archivedBody(2L)).thenReturn("Archived Body");
+        
+        // When
+        List<ContentReadView> result = contentService.searchContent("Old");
+        
+        // Then
+        assertThat(result).extracting(ContentReadView::getBody).containsExactly("Archived Body");
+        assertThat(result.get(0).getTitle()).isEqualTo("Old Title");
+        verify(tiering, never()).promoteOnRead(anyLong());
     }
     
     @Test
     void whenGetContentByIdNotFound_thenThrowException() {
         // Given
-        when(contentRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(contentRepository.findVisibleById(anyLong())).thenReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> contentService.getContentById(999L))
@@ -81,6 +156,36 @@ class ContentServiceTest {
             .hasMessageContaining("Content not found with id: 999");
     }
     
+    @Test
+    void whenGetContentByIds_thenKeepRequestOrderAndReportMissing() {
+        // Given
+        when(contentRepository.findVisibleByIdIn(any())).thenReturn(List.of(
+            readView(1L, "Test Title", "Test Body", false),
+            readView(2L, "Second Title", "Second Body", false)));
+        
+        // When
+        MultiGetResponse result = contentService.getContentByIds(Arrays.asList(2L, 99L, 1L, 2L));
+        
+        // Then
+        assertThat(result.getItems()).extracting(ContentResponse::getId).containsExactly(2L, 1L);
+        assertThat(result.getMissingIds()).containsExactly(99L);
+        verify(contentRepository, times(1)).findVisibleByIdIn(argThat((Collection<Long> ids) ->
+            ids.size() == 3));
+    }
+    
+    @Test
+    void whenGetContentByIdsExceedsBatchSize_thenThrowException() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, ContentService.MAX_BATCH_SIZE + 1)
+            .boxed()
+            .collect(Collectors.toList());
+        
+        // When & Then
+        assertThatThrownBy(() -> contentService.getContentByIds(ids))
+            .isInstanceOf(InvalidRequestException.class);
+        verify(contentRepository, never()).findVisibleByIdIn(any());
+    }
+    
     @Test
     void whenCreateContent_thenReturnCreatedContent() {
         // Given
@@ -94,16 +199,20 @@ class ContentServiceTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getTitle()).isEqualTo("Test Title");
         verify(contentRepository, times(1)).save(any(Content.class));
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+            event instanceof ContentChangedEvent changed
+                && changed.getType() == ContentChangedEvent.Type.CREATED
+                && changed.getContentId().equals(1L)));
     }
     
     @Test
     void whenUpdateContent_thenReturnUpdatedContent() {
         // Given
         ContentRequest request = new ContentRequest("Updated Title", "Updated Body");
-        Content updatedContent = new Content("Updated Title", "Updated Body");
+        Content updatedContent = new Content("Updated Title", new ContentBody("Updated Body"));
         updatedContent.setId(1L);
         
-        when(contentRepository.findById(1L)).thenReturn(Optional.of(testContent));
+        when(contentRepository.findForEditById(1L)).thenReturn(Optional.of(testContent));
         when(contentRepository.save(any(Content.class))).thenReturn(updatedContent);
         
         // When
@@ -112,15 +221,79 @@ class ContentServiceTest {
         // Then
         assertThat(result.getTitle()).isEqualTo("Updated Title");
         assertThat(result.getBody()).isEqualTo("Updated Body");
-        verify(contentRepository, times(1)).findById(1L);
+        verify(contentRepository, times(1)).findForEditById(1L);
         verify(contentRepository, times(1)).save(any(Content.class));
     }
     
+    @Test
+    void whenCreateContentWithFuturePublishAt_thenContentIsNotVisible() {
+        // Given
+        ContentRequest request = new ContentRequest("New Title", "New Body");
+        request.setPublishAt(LocalDateTime.now().plusDays(1));
+        when(bodyStore.acquire("New Body")).thenReturn(new ContentBody("New Body"));
+        when(contentRepository.save(any(Content.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        ContentResponse result = contentService.createContent(request);
+        
+        // Then
+        assertThat(result.isVisible()).isFalse();
+        assertThat(result.getPublishAt()).isEqualTo(request.getPublishAt());
+    }
+    
+    @Test
+    void whenCreateContentWithInvertedWindow_thenThrowException() {
+        // Given
+        ContentRequest request = new ContentRequest("New Title", "New Body");
+        request.setPublishAt(LocalDateTime.now().plusDays(2));
+        request.setUnpublishAt(LocalDateTime.now().plusDays(1));
+        
+        // When & Then
+        assertThatThrownBy(() -> contentService.createContent(request))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessageContaining("unpublishAt must be after publishAt");
+        verify(contentRepository, never()).save(any());
+    }
+    
+    @Test
+    void whenUpdateContentWithNewBody_thenSwapBodyReference() {
+        // Given
+        ContentRequest request = new ContentRequest("Test Title", "Updated Body");
+        String previousHash = testContent.getBodyHash();
+        ContentBody updatedBody = new ContentBody("Updated Body");
+        when(contentRepository.findForEditById(1L)).thenReturn(Optional.of(testContent));
+        when(bodyStore.acquire(updatedBody.getHash(), "Updated Body")).thenReturn(updatedBody);
+        when(contentRepository.save(testContent)).thenReturn(testContent);
+        
+        // When
+        ContentResponse result = contentService.updateContent(1L, request);
+        
+        // Then
+        assertThat(result.getBody()).isEqualTo("Updated Body");
+        verify(bodyStore, times(1)).release(previousHash);
+    }
+    
+    @Test
+    void whenUpdateContentWithUnchangedBody_thenBodyIsNotWritten() {
+        // Given
+        ContentRequest request = new ContentRequest("Updated Title", "Test Body");
+        when(contentRepository.findForEditById(1L)).thenReturn(Optional.of(testContent));
+        when(contentRepository.save(testContent)).thenReturn(testContent);
+        
+        // When
+        ContentResponse result = contentService.updateContent(1L, request);
+        
+        // Then
+        assertThat(result.getTitle()).isEqualTo("Updated Title");
+        assertThat(result.getBody()).isEqualTo("Test Body");
+        verifyNoInteractions(bodyStore);
+    }
+    
     @Test
     void whenUpdateContentNotFound_thenThrowException() {
         // Given
         ContentRequest request = new ContentRequest("Updated Title", "Updated Body");
-        when(contentRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(contentRepository.findForEditById(anyLong())).thenReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> contentService.updateContent(999L, request))
@@ -128,43 +301,176 @@ class ContentServiceTest {
             .hasMessageContaining("Content not found with id: 999");
     }
     
+    @Test
+    void whenPatchTitleOnly_thenBodyIsNotTouched() {
+        // Given
+        ContentPatchRequest patch = new ContentPatchRequest();
+        patch.setTitle("Patched Title");
+        when(contentRepository.findForEditById(1L)).thenReturn(Optional.of(testContent));
+        when(contentRepository.save(testContent)).thenReturn(testContent);
+        
+        // When
+        ContentResponse result = contentService.patchContent(1L, patch);
+        
+        // Then
+        assertThat(result.getTitle()).isEqualTo("Patched Title");
+        assertThat(result.getBody()).isNull();
+        verifyNoInteractions(bodyStore, tiering);
+        ArgumentCaptor<ContentChangedEvent> event = ArgumentCaptor.forClass(ContentChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().getPrevious().getTitle()).isEqualTo("Test Title");
+        assertThat(event.getValue().getPrevious().getBody()).isNull();
+        assertThat(event.getValue().getCurrent().getBody()).isNull();
+    }
+    
+    @Test
+    void whenPatchBody_thenPreviousAndCurrentBodiesAreLoaded() {
+        // Given
+        ContentPatchRequest patch = new ContentPatchRequest();
+        patch.setBody("Patched Body");
+        ContentBody patchedBody = new ContentBody("Patched Body");
+        when(contentRepository.findForEditById(1L)).thenReturn(Optional.of(testContent));
+        when(bodyStore.acquire(patchedBody.getHash(), "Patched Body")).thenReturn(patchedBody);
+        when(contentRepository.save(testContent)).thenReturn(testContent);
+        
+        // When
+        ContentResponse result = contentService.patchContent(1L, patch);
+        
+        // Then
+        assertThat(result.getBody()).isEqualTo("Patched Body");
+        verify(tiering).restore(testContent);
+        ArgumentCaptor<ContentChangedEvent> event = ArgumentCaptor.forClass(ContentChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getPrevious().getBody()).isEqualTo("Test Body");
+    }
+    
+    @Test
+    void whenPatchIsEmpty_thenNothingIsWrittenOrPublished() {
+        // Given
+        when(contentRepository.findForEditById(1L)).thenReturn(Optional.of(testContent));
+        
+        // When
+        ContentResponse result = contentService.patchContent(1L, new ContentPatchRequest());
+        
+        // Then
+        assertThat(result.getTitle()).isEqualTo("Test Title");
+        verify(contentRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher, bodyStore);
+    }
+    
+    @Test
+    void whenPatchClearsPublishAt_thenContentBecomesVisible() {
+        // Given
+        LocalDateTime unpublishAt = LocalDateTime.now().plusDays(7);
+        testContent.setPublishAt(LocalDateTime.now().plusDays(1));
+        testContent.setUnpublishAt(unpublishAt);
+        testContent.setVisible(false);
+        ContentPatchRequest patch = new ContentPatchRequest();
+        patch.setPublishAt(null);
+        when(contentRepository.findForEditById(1L)).thenReturn(Optional.of(testContent));
+        when(contentRepository.save(testContent)).thenReturn(testContent);
+        
+        // When
+        ContentResponse result = contentService.patchContent(1L, patch);
+        
+        // Then
+        assertThat(result.isVisible()).isTrue();
+        assertThat(result.getPublishAt()).isNull();
+        assertThat(result.getUnpublishAt()).isEqualTo(unpublishAt);
+        assertThat(result.getTitle()).isEqualTo("Test Title");
+    }
+    
+    @Test
+    void whenPatchNullsRequiredField_thenThrowException() {
+        // Given
+        ContentPatchRequest patch = new ContentPatchRequest();
+        patch.setTitle(null);
+        when(contentRepository.findForEditById(1L)).thenReturn(Optional.of(testContent));
+        
+        // When & Then
+        assertThatThrownBy(() -> contentService.patchContent(1L, patch))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessageContaining("Title is required");
+        verify(contentRepository, never()).save(any());
+    }
+    
+    @Test
+    void whenPatchInvertsWindowAgainstStoredBound_thenThrowException() {
+        // Given
+        testContent.setUnpublishAt(LocalDateTime.now().plusDays(1));
+        ContentPatchRequest patch = new ContentPatchRequest();
+        patch.setPublishAt(LocalDateTime.now().plusDays(2));
+        when(contentRepository.findForEditById(1L)).thenReturn(Optional.of(testContent));
+        
+        // When & Then
+        assertThatThrownBy(() -> contentService.patchContent(1L, patch))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessageContaining("unpublishAt must be after publishAt");
+        verify(contentRepository, never()).save(any());
+    }
+    
     @Test
     void whenDeleteContent_thenContentIsDeleted() {
         // Given
-        when(contentRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(contentRepository).deleteById(1L);
+        when(contentRepository.softDeleteById(eq(1L), any(LocalDateTime.class))).thenReturn(1);
         
         // When
         contentService.deleteContent(1L);
         
         // Then
-        verify(contentRepository, times(1)).existsById(1L);
-        verify(contentRepository, times(1)).deleteById(1L);
+        verify(contentRepository, times(1)).softDeleteById(eq(1L), any(LocalDateTime.class));
+        verify(contentRepository, never()).deleteById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(any(ContentChangedEvent.class));
+    }
+    
+    @Test
+    void whenDeleteContent_thenNothingIsReadBeforeTheUpdate() {
+        // Given
+        when(contentRepository.softDeleteById(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        ArgumentCaptor<ContentChangedEvent> event = ArgumentCaptor.forClass(ContentChangedEvent.class);
+        
+        // When
+        contentService.deleteContent(1L);
+        
+        // Then
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(ContentChangedEvent.Type.DELETED);
+        assertThat(event.getValue().getContentId()).isEqualTo(1L);
+        assertThat(event.getValue().getPrevious()).isNull();
+        verify(contentRepository).softDeleteById(eq(1L), any(LocalDateTime.class));
+        verifyNoMoreInteractions(contentRepository);
+        verifyNoInteractions(tiering);
     }
     
     @Test
     void whenDeleteContentNotFound_thenThrowException() {
         // Given
-        when(contentRepository.existsById(anyLong())).thenReturn(false);
+        when(contentRepository.softDeleteById(anyLong(), any(LocalDateTime.class))).thenReturn(0);
         
         // When & Then
         assertThatThrownBy(() -> contentService.deleteContent(999L))
             .isInstanceOf(ResourceNotFoundException.class)
             .hasMessageContaining("Content not found with id: 999");
+        verify(eventPublisher, never()).publishEvent(any());
     }
     
     @Test
     void whenSearchContent_thenReturnMatchingContent() {
         // Given
-        List<Content> contentList = Arrays.asList(testContent);
-        when(contentRepository.findByTitleContainingIgnoreCase("test")).thenReturn(contentList);
+        when(contentRepository.searchVisibleByTitle("test")).thenReturn(List.of(readView(1L, "Test Title", "Test Body", false)));
         
         // When
-        List<ContentResponse> result = contentService.searchContent("test");
+        List<ContentReadView> result = contentService.searchContent("test");
         
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getTitle()).isEqualTo("Test Title");
-        verify(contentRepository, times(1)).findByTitleContainingIgnoreCase("test");
+        verify(contentRepository, times(1)).searchVisibleByTitle("test");
+    }
+    
+    private static ContentReadView readView(Long id, String title, String body, boolean archived) {
+        LocalDateTime now = LocalDateTime.now();
+        String bodyHash = body == null ? null : ContentBody.hashOf(body);
+        return new ContentReadView(id, title, body, bodyHash, now, now, null, null, true, archived);
     }
 }
@@ -0,0 +1,177 @@
+package com.whitefallen.cms.stats;
+
+import com.whitefallen.cms.dto.ContentResponse;
+import com.whitefallen.cms.dto.ContentStatsResponse;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.repository.DailyCountView;
+import com.whitefallen.cms.repository.LengthCountView;
+import com.whitefallen.cms.service.ContentChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContentStatisticsTest {
+    
+    @Mock
+    private ContentRepository contentRepository;
+    
+    private ContentStatistics statistics;
+    
+    private LocalDateTime now;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = new ContentStatistics(contentRepository);
+        now = LocalDateTime.now();
+    }
+    
+    @Test
+    void whenContentCreated_thenCountersIncludeIt() {
+        // When
+        statistics.onContentChanged(ContentChangedEvent.created(content(1L, "Title", "Short body", now, now)));
+        statistics.onContentChanged(ContentChangedEvent.created(content(2L, "Title", "x".repeat(100), now, now)));
+        
+        // Then
+        ContentStatsResponse stats = statistics.snapshot(30);
+        assertThat(stats.getTotalCount()).isEqualTo(2);
+        assertThat(stats.getCreatedPerDay()).containsExactly(entry(now.toLocalDate(), 2L));
+        assertThat(stats.getBodyLength().getAverage()).isEqualTo(55.0);
+        assertThat(stats.getBodyLength().getBuckets())
+            .containsEntry("0-15", 1L)
+            .containsEntry("64-255", 1L);
+    }
+    
+    @Test
+    void whenContentUpdated_thenOldStateIsReplaced() {
+        // Given
+        LocalDateTime yesterday = now.minusDays(1);
+        ContentResponse original = content(1L, "Title", "Short body", yesterday, yesterday);
+        statistics.onContentChanged(ContentChangedEvent.created(original));
+        
+        // When
+        ContentResponse updated = content(1L, "Title", "x".repeat(100), yesterday, now);
+        statistics.onContentChanged(ContentChangedEvent.updated(original, updated));
+        
+        // Then
+        ContentStatsResponse stats = statistics.snapshot(30);
+        assertThat(stats.getTotalCount()).isEqualTo(1);
+        assertThat(stats.getCreatedPerDay()).containsExactly(entry(yesterday.toLocalDate(), 1L));
+        assertThat(stats.getUpdatedPerDay()).containsExactly(entry(now.toLocalDate(), 1L));
+        assertThat(stats.getBodyLength().getBuckets())
+            .containsEntry("0-15", 0L)
+            .containsEntry("64-255", 1L);
+    }
+    
+    @Test
+    void whenContentDeleted_thenCountersDropIt() {
+        // Given
+        ContentResponse content = content(1L, "Title", "Short body", now, now);
+        statistics.onContentChanged(ContentChangedEvent.created(content));
+        
+        // When
+        statistics.onContentChanged(ContentChangedEvent.deleted(1L, content));
+        
+        // Then
+        ContentStatsResponse stats = statistics.snapshot(30);
+        assertThat(stats.getTotalCount()).isZero();
+        assertThat(stats.getCreatedPerDay()).isEmpty();
+        assertThat(stats.getBodyLength().getAverage()).isZero();
+    }
+    
+    @Test
+    void whenContentDeletedWithoutPreviousState_thenOnlyTotalDropsUntilReconcile() {
+        // Given
+        statistics.onContentChanged(ContentChangedEvent.created(content(1L, "Title", "Short body", now, now)));
+        
+        // When
+        statistics.onContentChanged(ContentChangedEvent.deleted(1L, null));
+        
+        // Then
+        ContentStatsResponse stats = statistics.snapshot(30);
+        assertThat(stats.getTotalCount()).isZero();
+        assertThat(stats.getCreatedPerDay()).containsExactly(entry(now.toLocalDate(), 1L));
+    }
+    
+    @Test
+    void whenSnapshotWithFewDays_thenOlderDaysAreLeftOut() {
+        // Given
+        LocalDateTime lastMonth = now.minusDays(40);
+        statistics.onContentChanged(ContentChangedEvent.created(content(1L, "Old", "Body", lastMonth, lastMonth)));
+        statistics.onContentChanged(ContentChangedEvent.created(content(2L, "New", "Body", now, now)));
+        
+        // When
+        ContentStatsResponse stats = statistics.snapshot(7);
+        
+        // Then
+        assertThat(stats.getTotalCount()).isEqualTo(2);
+        assertThat(stats.getCreatedPerDay()).containsOnlyKeys(now.toLocalDate());
+    }
+    
+    @Test
+    void whenReconcile_thenCountersAreReplacedByDatabaseAggregates() {
+        // Given
+        statistics.onContentChanged(ContentChangedEvent.created(content(1L, "Drifted", "Body", now, now)));
+        LocalDate today = now.toLocalDate();
+        when(contentRepository.countCreatedPerDay()).thenReturn(List.of(dailyCount(today, 3)));
+        when(contentRepository.countUpdatedPerDay()).thenReturn(List.of(dailyCount(today, 3)));
+        when(contentRepository.countByTitleLength()).thenReturn(List.of(lengthCount(10, 3)));
+        when(contentRepository.countByBodyLength()).thenReturn(List.of(lengthCount(20, 1), lengthCount(300, 2)));
+        
+        // When
+        statistics.reconcile();
+        
+        // Then
+        ContentStatsResponse stats = statistics.snapshot(30);
+        assertThat(stats.getTotalCount()).isEqualTo(3);
+        assertThat(stats.getCreatedPerDay()).containsExactly(entry(today, 3L));
+        assertThat(stats.getTitleLength().getAverage()).isEqualTo(10.0);
+        assertThat(stats.getBodyLength().getBuckets())
+            .containsEntry("16-63", 1L)
+            .containsEntry("256-1023", 2L);
+        assertThat(stats.getReconciledAt()).isNotNull();
+    }
+    
+    private static ContentResponse content(Long id, String title, String body,
+                                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new ContentResponse(id, title, body, createdAt, updatedAt);
+    }
+    
+    private static DailyCountView dailyCount(LocalDate day, long count) {
+        return new DailyCountView() {
+            @Override
+            public LocalDate getDay() {
+                return day;
+            }
+            
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+    
+    private static LengthCountView lengthCount(int length, long count) {
+        return new LengthCountView() {
+            @Override
+            public int getLength() {
+                return length;
+            }
+            
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
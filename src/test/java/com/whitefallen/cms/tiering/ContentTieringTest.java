@@ -0,0 +1,244 @@
+package com.whitefallen.cms.tiering;
+
+import com.whitefallen.cms.config.TieringProperties;
+import com.whitefallen.cms.model.Content;
+import com.whitefallen.cms.model.ContentBody;
+import com.whitefallen.cms.repository.ContentBodyRepository;
+import com.whitefallen.cms.repository.ContentRepository;
+import com.whitefallen.cms.service.ContentBodyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({ContentTiering.class, ContentArchive.class, ContentBodyStore.class, SimpleMeterRegistry.class})
+@EnableConfigurationProperties(TieringProperties.class)
+class ContentTieringTest {
+    
+    @TempDir
+    static Path archiveDirectory;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private ContentTiering tiering;
+    
+    @Autowired
+    private ContentArchive archive;
+    
+    @Autowired
+    private ContentBodyStore bodyStore;
+    
+    @Autowired
+    private ContentRepository contentRepository;
+    
+    @Autowired
+    private ContentBodyRepository bodyRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private TieringProperties properties;
+    
+    @DynamicPropertySource
+    static void tieringProperties(DynamicPropertyRegistry registry) {
+        registry.add("cms.tiering.enabled", () -> "true");
+        registry.add("cms.tiering.directory", () -> archiveDirectory.toString());
+        registry.add("cms.tiering.cold-after", () -> "30d");
+    }
+    
+    @Test
+    void whenContentIsCold_thenBodyMovesToArchive() {
+        // Given
+        Long id = persistUpdatedDaysAgo("Old news", "Yesterday's body", 60);
+        
+        // When
+        int archived = tiering.archiveColdContent();
+        
+        // Then
+        entityManager.clear();
+        Content content = contentRepository.findById(id).orElseThrow();
+        assertThat(archived).isEqualTo(1);
+        assertThat(content.isArchived()).isTrue();
+        assertThat(content.getBodyBlob()).isNull();
+        assertThat(content.getArchivedBodyLength()).isEqualTo("Yesterday's body".length());
+        assertThat(content.getArchivedBodyHash()).isEqualTo(ContentBody.hashOf("Yesterday's body"));
+        assertThat(bodyRepository.count()).isZero();
+        assertThat(Files.exists(archive.fileOf(id))).isTrue();
+        assertThat(tiering.archivedBody(id)).isEqualTo("Yesterday's body");
+    }
+    
+    @Test
+    void whenContentIsRecentOrRecentlyRead_thenItStaysHot() {
+        // Given
+        Long recent = persistUpdatedDaysAgo("Recent", "Recent body", 1);
+        Long read = persistUpdatedDaysAgo("Old but read", "Read body", 60);
+        tiering.recordAccess(read);
+        
+        // When
+        int archived = tiering.archiveColdContent();
+        
+        // Then
+        entityManager.clear();
+        assertThat(archived).isZero();
+        assertThat(contentRepository.findById(recent).orElseThrow().isArchived()).isFalse();
+        assertThat(contentRepository.findById(read).orElseThrow().getLastAccessedAt()).isNotNull();
+    }
+    
+    @Test
+    void whenTieringIsDisabled_thenAccessesAreNotKept() {
+        // Given
+        Long read = persistUpdatedDaysAgo("Old but read", "Read body", 60);
+        properties.setEnabled(false);
+        try {
+            tiering.recordAccess(read);
+        } finally {
+            properties.setEnabled(true);
+        }
+        
+        // When
+        int archived = tiering.archiveColdContent();
+        
+        // Then
+        assertThat(archived).isEqualTo(1);
+    }
+    
+    @Test
+    void whenTieringIsEnabledWithoutDirectory_thenArchiveFailsToStart() {
+        // Given
+        TieringProperties withoutDirectory = new TieringProperties();
+        withoutDirectory.setEnabled(true);
+        
+        // When & Then
+        assertThatThrownBy(() -> new ContentArchive(withoutDirectory))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("cms.tiering.directory");
+    }
+    
+    @Test
+    void whenArchivedContentIsPromoted_thenBodyReturnsWithoutCountingAsEdit() {
+        // Given
+        Long id = persistUpdatedDaysAgo("Old news", "Yesterday's body", 60);
+        tiering.archiveColdContent();
+        entityManager.clear();
+        Content archived = contentRepository.findById(id).orElseThrow();
+        LocalDateTime updatedAt = archived.getUpdatedAt();
+        
+        // When
+        String body = tiering.promote(id);
+        
+        // Then
+        entityManager.clear();
+        Content promoted = contentRepository.findById(id).orElseThrow();
+        assertThat(body).isEqualTo("Yesterday's body");
+        assertThat(promoted.isArchived()).isFalse();
+        assertThat(promoted.getBody()).isEqualTo("Yesterday's body");
+        assertThat(promoted.getArchivedBodyHash()).isNull();
+        assertThat(promoted.getUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(bodyRepository.findById(promoted.getBodyHash()).orElseThrow().getRefCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void whenPromotionOnReadIsDisabled_thenReadLeavesRowArchived() {
+        // Given
+        Long id = persistUpdatedDaysAgo("Old news", "Yesterday's body", 60);
+        tiering.archiveColdContent();
+        entityManager.clear();
+        properties.setPromoteOnRead(false);
+        try {
+            // When
+            String body = tiering.promoteOnRead(id);
+            
+            // Then
+            entityManager.clear();
+            assertThat(body).isEqualTo("Yesterday's body");
+            assertThat(contentRepository.findById(id).orElseThrow().isArchived()).isTrue();
+            assertThat(Files.exists(archive.fileOf(id))).isTrue();
+        } finally {
+            properties.setPromoteOnRead(true);
+        }
+    }
+    
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void whenColdContentIsBeingEdited_thenArchiverWaitsAndSkipsIt() throws Exception {
+        // Given
+        Long id = transactionTemplate.execute(status -> persistUpdatedDaysAgo("Old news", "Yesterday's body", 60));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch editMayCommit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // When - the archive run starts while the edit holds the row
+            Future<?> edit = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                Content content = contentRepository.findForEditById(id).orElseThrow();
+                content.setTitle("Corrected news");
+                locked.countDown();
+                awaitQuietly(editMayCommit);
+            }));
+            assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Integer> run = executor.submit(tiering::archiveColdContent);
+            Thread.sleep(200);
+            editMayCommit.countDown();
+            edit.get(5, TimeUnit.SECONDS);
+            
+            // Then - the edit made the row recent again, so it is no longer a candidate
+            assertThat(run.get(5, TimeUnit.SECONDS)).isZero();
+            Content content = contentRepository.findById(id).orElseThrow();
+            assertThat(content.isArchived()).isFalse();
+            assertThat(content.getTitle()).isEqualTo("Corrected news");
+            assertThat(bodyRepository.findById(content.getBodyHash()).orElseThrow().getRefCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+            transactionTemplate.executeWithoutResult(status -> {
+                contentRepository.deleteAllInBatch();
+                bodyRepository.deleteAllInBatch();
+            });
+        }
+    }
+    
+    private Long persistUpdatedDaysAgo(String title, String body, int days) {
+        Content content = entityManager.persist(new Content(title, bodyStore.acquire(body)));
+        entityManager.flush();
+        // Bulk update, so that @PreUpdate does not reset the timestamp
+        entityManager.getEntityManager()
+            .createQuery("update Content c set c.updatedAt = :updatedAt where c.id = :id")
+            .setParameter("updatedAt", LocalDateTime.now().minusDays(days).truncatedTo(ChronoUnit.MICROS))
+            .setParameter("id", content.getId())
+            .executeUpdate();
+        entityManager.clear();
+        return content.getId();
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}